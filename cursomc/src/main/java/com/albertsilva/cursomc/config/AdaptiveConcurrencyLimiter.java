@@ -0,0 +1,153 @@
+package com.albertsilva.cursomc.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência observada
+ * (algoritmo de gradiente).
+ *
+ * <p>
+ * São mantidas duas médias da latência: uma curta, que acompanha a
+ * situação atual, e uma longa (cerca de {@value #JANELA_LONGA} amostras),
+ * que representa a latência normal do recurso. A cada requisição
+ * concluída, o limite é multiplicado pelo gradiente
+ * {@code tolerância × longa / curta}, restrito a [0,5; 1], e acrescido de
+ * {@code √limite}:
+ * </p>
+ * <ul>
+ * <li>enquanto a latência atual estiver dentro da tolerância, o gradiente
+ * é 1 e o limite cresce devagar, sondando capacidade;</li>
+ * <li>quando o banco fica lento, a latência curta sobe, o gradiente cai e
+ * o limite encolhe, em vez de as requisições se acumularem nas threads do
+ * Tomcat.</li>
+ * </ul>
+ *
+ * <p>
+ * Amostras colhidas com menos da metade do limite em uso não alteram o
+ * limite: a aplicação estava ociosa e a latência não diz nada sobre a
+ * capacidade. A aquisição é uma operação atômica sem bloqueio; apenas a
+ * atualização das médias é serializada.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final int JANELA_CURTA = 10;
+  private static final int JANELA_LONGA = 600;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double smoothing;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final ReentrantLock amostraLock = new ReentrantLock();
+
+  private volatile double limit;
+  private double rttCurto;
+  private double rttLongo;
+
+  /**
+   * Cria o limitador.
+   *
+   * @param initialLimit limite inicial
+   * @param minLimit     limite mínimo
+   * @param maxLimit     limite máximo
+   * @param tolerance    razão entre latência atual e normal tolerada antes
+   *                     de reduzir o limite
+   * @param smoothing    peso de cada ajuste sobre o limite anterior, entre 0
+   *                     e 1
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+      double smoothing) {
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.smoothing = smoothing;
+  }
+
+  /**
+   * Tenta admitir uma requisição que pode ocupar apenas a fração
+   * informada do limite.
+   *
+   * @param share fração do limite disponível para a prioridade da
+   *              requisição, entre 0 e 1
+   * @return número de requisições em andamento após a admissão, ou
+   *         {@code -1} se a requisição deve ser recusada
+   */
+  public int tryAcquire(double share) {
+    int teto = Math.max(1, (int) (limit * share));
+    while (true) {
+      int atual = inFlight.get();
+      if (atual >= teto) {
+        return -1;
+      }
+      if (inFlight.compareAndSet(atual, atual + 1)) {
+        return atual + 1;
+      }
+    }
+  }
+
+  /**
+   * Libera uma requisição admitida e registra a sua latência.
+   *
+   * @param rttNanos         duração da requisição
+   * @param inFlightAdmissao requisições em andamento no momento da admissão
+   */
+  public void release(long rttNanos, int inFlightAdmissao) {
+    inFlight.decrementAndGet();
+    amostraLock.lock();
+    try {
+      sample(rttNanos, inFlightAdmissao);
+    } finally {
+      amostraLock.unlock();
+    }
+  }
+
+  /**
+   * Retorna o limite atual.
+   *
+   * @return limite de requisições simultâneas
+   */
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Retorna o número de requisições em andamento.
+   *
+   * @return requisições admitidas e ainda não liberadas
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private void sample(double rtt, int emUso) {
+
+    if (rttLongo == 0) {
+      rttCurto = rtt;
+      rttLongo = rtt;
+      return;
+    }
+
+    rttCurto += (rtt - rttCurto) / JANELA_CURTA;
+    rttLongo += (rtt - rttLongo) / JANELA_LONGA;
+
+    // Após uma queda forte de latência, a média longa converge mais rápido.
+    if (rttLongo / rttCurto > 2) {
+      rttLongo *= 0.95;
+    }
+
+    double atual = limit;
+    if (emUso < atual / 2) {
+      return;
+    }
+
+    double gradiente = Math.max(0.5, Math.min(1.0, tolerance * rttLongo / rttCurto));
+    double novo = atual * gradiente + Math.sqrt(atual);
+    novo = atual * (1 - smoothing) + novo * smoothing;
+
+    limit = Math.max(minLimit, Math.min(maxLimit, novo));
+  }
+}
@@ -0,0 +1,31 @@
+package com.albertsilva.cursomc.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Classe de configuração que habilita o cache de respostas da camada de
+ * serviço ({@link org.springframework.cache.annotation.Cacheable}).
+ *
+ * <p>
+ * O interceptador de cache é ordenado antes do transacional, de modo que
+ * envolve a transação do método anotado:
+ * </p>
+ * <ul>
+ * <li>Um acerto no cache é respondido sem abrir transação nem obter
+ * conexão;</li>
+ * <li>As remoções de {@link org.springframework.cache.annotation.CacheEvict}
+ * ocorrem somente após o commit, evitando que uma leitura concorrente
+ * recoloque no cache o valor anterior à alteração.</li>
+ * </ul>
+ *
+ * <p>
+ * O provedor (Caffeine), os nomes e os limites dos caches são definidos em
+ * {@code application.properties}.
+ * </p>
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+}
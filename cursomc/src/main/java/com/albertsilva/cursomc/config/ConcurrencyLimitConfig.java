@@ -0,0 +1,53 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Classe de configuração do limite adaptativo de concorrência dos
+ * endpoints de pedidos e clientes ({@link ConcurrencyLimitInterceptor}).
+ *
+ * <p>
+ * Ativado por {@code cursomc.concurrency-limit.enabled}; os parâmetros do
+ * algoritmo e as frações por prioridade ficam em
+ * {@code cursomc.concurrency-limit.*}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "cursomc.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+  private final ConcurrencyLimitInterceptor interceptor;
+
+  public ConcurrencyLimitConfig(ConcurrencyLimitInterceptor interceptor) {
+    this.interceptor = interceptor;
+  }
+
+  @Bean
+  public static ConcurrencyLimitInterceptor concurrencyLimitInterceptor(
+      @Value("${cursomc.concurrency-limit.initial-limit:20}") int initialLimit,
+      @Value("${cursomc.concurrency-limit.min-limit:4}") int minLimit,
+      @Value("${cursomc.concurrency-limit.max-limit:200}") int maxLimit,
+      @Value("${cursomc.concurrency-limit.tolerance:1.5}") double tolerance,
+      @Value("${cursomc.concurrency-limit.smoothing:0.2}") double smoothing,
+      @Value("${cursomc.concurrency-limit.share.normal:0.8}") double normalShare,
+      @Value("${cursomc.concurrency-limit.share.bulk:0.5}") double bulkShare,
+      @Value("${cursomc.concurrency-limit.retry-after:1s}") Duration retryAfter,
+      MeterRegistry registry) {
+    return new ConcurrencyLimitInterceptor(initialLimit, minLimit, maxLimit, tolerance, smoothing, normalShare,
+        bulkShare, retryAfter, registry);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(interceptor).addPathPatterns("/pedidos/**", "/clientes/**");
+  }
+}
@@ -0,0 +1,165 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.albertsilva.cursomc.services.exceptions.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor que aplica um {@link AdaptiveConcurrencyLimiter} por
+ * endpoint REST e descarta o excesso de requisições.
+ *
+ * <p>
+ * Cada método de controller (por exemplo, {@code PedidoResource.insert})
+ * tem o seu próprio limite, ajustado apenas pela latência das suas
+ * requisições. Endpoints de custo muito diferente não se misturam: um lote
+ * lento ou uma listagem pesada reduz o próprio limite, sem encolher o da
+ * criação de pedidos nem o das leituras por id servidas do cache.
+ * </p>
+ *
+ * <p>
+ * Uma requisição só é admitida se o número de requisições em andamento no
+ * endpoint estiver abaixo da fração do limite reservada à sua
+ * {@link RequestPriority}; caso contrário, é recusada antes de chegar ao
+ * controller com {@link ServiceOverloadedException} (503 com
+ * {@code Retry-After}). Assim, quando o banco fica lento e todos os limites
+ * encolhem, listagens e lotes são recusados com menos requisições em
+ * andamento do que a criação de pedidos, que pode usar o limite inteiro.
+ * </p>
+ *
+ * <p>
+ * Métricas: {@code cursomc.concurrency.limit} e
+ * {@code cursomc.concurrency.inflight} por endpoint e
+ * {@code cursomc.concurrency.shed} por endpoint e prioridade, com a tag
+ * {@code limiter} no formato {@code Controller.metodo}.
+ * </p>
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+  private static final String ADMISSAO = ConcurrencyLimitInterceptor.class.getName() + ".admissao";
+
+  private final Map<RequestPriority.Level, Double> shares;
+  private final long retryAfterSeconds;
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double smoothing;
+  private final MeterRegistry registry;
+
+  private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+  /**
+   * Cria o interceptor.
+   *
+   * @param initialLimit limite inicial de cada endpoint
+   * @param minLimit     limite mínimo
+   * @param maxLimit     limite máximo
+   * @param tolerance    razão entre latência atual e normal tolerada
+   * @param smoothing    peso de cada ajuste do limite
+   * @param normalShare  fração do limite disponível para
+   *                     {@link RequestPriority.Level#NORMAL}
+   * @param bulkShare    fração do limite disponível para
+   *                     {@link RequestPriority.Level#BULK}
+   * @param retryAfter   intervalo sugerido para nova tentativa
+   * @param registry     registro de métricas
+   */
+  public ConcurrencyLimitInterceptor(int initialLimit, int minLimit, int maxLimit, double tolerance,
+      double smoothing, double normalShare, double bulkShare, Duration retryAfter, MeterRegistry registry) {
+    this.shares = new EnumMap<>(RequestPriority.Level.class);
+    this.shares.put(RequestPriority.Level.CRITICAL, 1.0);
+    this.shares.put(RequestPriority.Level.NORMAL, normalShare);
+    this.shares.put(RequestPriority.Level.BULK, bulkShare);
+    this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.smoothing = smoothing;
+    this.registry = registry;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+    if (!(handler instanceof HandlerMethod handlerMethod)) {
+      return true;
+    }
+
+    String nome = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    RequestPriority.Level prioridade = priority(handlerMethod);
+    AdaptiveConcurrencyLimiter limiter = limiter(nome);
+
+    int emUso = limiter.tryAcquire(shares.get(prioridade));
+    if (emUso < 0) {
+      Counter.builder("cursomc.concurrency.shed")
+          .description("Requisições recusadas pelo limite de concorrência")
+          .tag("limiter", nome)
+          .tag("priority", prioridade.name())
+          .register(registry)
+          .increment();
+      throw new ServiceOverloadedException(
+          "Serviço sobrecarregado; tente novamente em " + retryAfterSeconds + "s.", retryAfterSeconds);
+    }
+
+    request.setAttribute(ADMISSAO, new Admissao(limiter, System.nanoTime(), emUso));
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+      Exception ex) {
+
+    if (request.getAttribute(ADMISSAO) instanceof Admissao admissao) {
+      request.removeAttribute(ADMISSAO);
+      admissao.limiter().release(System.nanoTime() - admissao.inicio(), admissao.emUso());
+    }
+  }
+
+  /**
+   * Retorna o limitador do endpoint, criando-o no primeiro uso.
+   *
+   * @param nome nome simples da classe do controller seguido do nome do
+   *             método, por exemplo {@code PedidoResource.findAllPaged}
+   * @return limitador do endpoint
+   */
+  public AdaptiveConcurrencyLimiter limiter(String nome) {
+    return limiters.computeIfAbsent(nome, chave -> {
+      AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+          tolerance, smoothing);
+      Gauge.builder("cursomc.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+          .tag("limiter", chave)
+          .register(registry);
+      Gauge.builder("cursomc.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+          .tag("limiter", chave)
+          .register(registry);
+      return limiter;
+    });
+  }
+
+  private static RequestPriority.Level priority(HandlerMethod handlerMethod) {
+    RequestPriority anotacao = handlerMethod.getMethodAnnotation(RequestPriority.class);
+    if (anotacao == null) {
+      anotacao = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequestPriority.class);
+    }
+    return anotacao == null ? RequestPriority.Level.NORMAL : anotacao.value();
+  }
+
+  /**
+   * Requisição admitida, liberada ao fim do processamento.
+   */
+  private record Admissao(AdaptiveConcurrencyLimiter limiter, long inicio, int emUso) {
+  }
+}
@@ -0,0 +1,79 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Classe de configuração do limite de taxa por cliente da API
+ * ({@link RateLimitFilter}).
+ *
+ * <p>
+ * Ativado por {@code cursomc.rate-limit.enabled}, desativado por padrão:
+ * a cota anônima é por endereço de origem e só deve ser ligada com
+ * {@code server.forward-headers-strategy} configurado quando a aplicação
+ * estiver atrás de um proxy. As chaves de API aceitas
+ * são listadas em {@code cursomc.rate-limit.api-keys} no formato
+ * {@code chave:capacidade}; chaves sem capacidade usam
+ * {@code cursomc.rate-limit.api-key.capacity}, e todas repõem a cota em
+ * {@code cursomc.rate-limit.api-key.period}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "cursomc.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+  @Bean
+  public RateLimitFilter rateLimitFilter(
+      @Value("${cursomc.rate-limit.ip.capacity:120}") int ipCapacity,
+      @Value("${cursomc.rate-limit.ip.period:1m}") Duration ipPeriod,
+      @Value("${cursomc.rate-limit.cliente.capacity:60}") int clienteCapacity,
+      @Value("${cursomc.rate-limit.cliente.period:1m}") Duration clientePeriod,
+      @Value("${cursomc.rate-limit.api-key.capacity:600}") int apiKeyCapacity,
+      @Value("${cursomc.rate-limit.api-key.period:1m}") Duration apiKeyPeriod,
+      @Value("${cursomc.rate-limit.api-keys:}") List<String> apiKeys,
+      @Value("${cursomc.rate-limit.max-buckets:100000}") long maxBuckets,
+      @Value("${cursomc.rate-limit.idle-expiry:10m}") Duration idleExpiry,
+      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+      MeterRegistry registry) {
+
+    Map<String, RateLimitFilter.Plan> apiKeyPlans = new HashMap<>();
+    for (String entrada : apiKeys) {
+      if (entrada.isBlank()) {
+        continue;
+      }
+      int separador = entrada.lastIndexOf(':');
+      String chave = separador < 0 ? entrada.strip() : entrada.substring(0, separador).strip();
+      int capacidade = separador < 0 ? apiKeyCapacity : Integer.parseInt(entrada.substring(separador + 1).strip());
+      apiKeyPlans.put(chave, new RateLimitFilter.Plan(capacidade, apiKeyPeriod));
+    }
+
+    return new RateLimitFilter(
+        new RateLimitFilter.Plan(ipCapacity, ipPeriod),
+        new RateLimitFilter.Plan(clienteCapacity, clientePeriod),
+        apiKeyPlans, maxBuckets, idleExpiry, exceptionResolver, registry);
+  }
+
+  /**
+   * Registra o filtro antes dos demais filtros da aplicação, para que
+   * requisições recusadas não consumam mais nada.
+   */
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+}
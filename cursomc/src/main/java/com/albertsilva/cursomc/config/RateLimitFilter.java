@@ -0,0 +1,221 @@
+package com.albertsilva.cursomc.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.albertsilva.cursomc.services.exceptions.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que limita a taxa de requisições de cada cliente da API com um
+ * {@link TokenBucket}, antes de a requisição chegar aos controllers.
+ *
+ * <p>
+ * Toda requisição é contada no balde de quem a envia: o da chave em
+ * {@value #API_KEY_HEADER}, se ela estiver entre as configuradas, com a
+ * cota própria da chave; senão, o do endereço de origem, com a cota
+ * anônima. Chaves desconhecidas não ganham balde próprio, para que variar
+ * a chave não contorne o limite.
+ * </p>
+ *
+ * <p>
+ * Requisições a {@code /clientes/{id}/**} são contadas também em um
+ * segundo balde, com a cota por cliente, e só passam se houver ficha nos
+ * dois. Esse balde é de quem envia e daquele cliente: variar o id não
+ * escapa da cota de quem envia, e esgotar o balde de um cliente não
+ * bloqueia os demais chamadores que o consultam.
+ * </p>
+ *
+ * <p>
+ * O endereço de origem é {@code getRemoteAddr()}. Atrás de um proxy ou
+ * balanceador, ele só identifica o cliente com
+ * {@code server.forward-headers-strategy} configurado; sem isso, todos os
+ * clientes anônimos dividiriam um único balde. Por isso o filtro vem
+ * desativado ({@code cursomc.rate-limit.enabled}).
+ * </p>
+ *
+ * <p>
+ * Os baldes ficam em um cache Caffeine limitado por
+ * {@code cursomc.rate-limit.max-buckets} e expiram após
+ * {@code cursomc.rate-limit.idle-expiry} sem uso — um balde ocioso por
+ * esse tempo estaria cheio de qualquer forma. Toda resposta recebe os
+ * cabeçalhos {@code RateLimit-Limit}, {@code RateLimit-Remaining},
+ * {@code RateLimit-Reset} e {@code RateLimit-Policy} do balde que recusou
+ * a requisição ou, se ela passou, do balde com menos fichas restantes; a
+ * requisição acima da cota recebe 429 pelo {@code GlobalExceptionHandler}.
+ * </p>
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  /**
+   * Cabeçalho que identifica o integrador.
+   */
+  public static final String API_KEY_HEADER = "X-API-Key";
+
+  private static final String CLIENTES_PREFIX = "/clientes/";
+
+  private final Plan ipPlan;
+  private final Plan clientePlan;
+  private final Map<String, Plan> apiKeyPlans;
+  private final HandlerExceptionResolver exceptionResolver;
+  private final Cache<String, TokenBucket> buckets;
+  private final Map<String, Counter> recusas;
+
+  /**
+   * Cria o filtro.
+   *
+   * @param ipPlan            cota por endereço de origem
+   * @param clientePlan       cota adicional de cada chamador por cliente em
+   *                          {@code /clientes/{id}}
+   * @param apiKeyPlans       cota de cada chave de API aceita
+   * @param maxBuckets        quantidade máxima de baldes em memória
+   * @param idleExpiry        tempo sem uso após o qual o balde é descartado
+   * @param exceptionResolver resolvedor que converte a recusa na resposta
+   *                          de erro padrão
+   * @param registry          registro de métricas
+   */
+  public RateLimitFilter(Plan ipPlan, Plan clientePlan, Map<String, Plan> apiKeyPlans, long maxBuckets,
+      Duration idleExpiry, HandlerExceptionResolver exceptionResolver, MeterRegistry registry) {
+
+    this.ipPlan = ipPlan;
+    this.clientePlan = clientePlan;
+    this.apiKeyPlans = Map.copyOf(apiKeyPlans);
+    this.exceptionResolver = exceptionResolver;
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(maxBuckets)
+        .expireAfterAccess(idleExpiry)
+        .build();
+    this.recusas = Map.of(
+        "api-key", recusas("api-key", registry),
+        "cliente", recusas("cliente", registry),
+        "ip", recusas("ip", registry));
+
+    Gauge.builder("cursomc.ratelimit.buckets", buckets, Cache::estimatedSize)
+        .description("Baldes de limite de taxa em memória")
+        .register(registry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return caminho(request).startsWith("/actuator");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+
+    long agora = System.nanoTime();
+
+    String tipo;
+    String chamador;
+    Plan plan;
+
+    String apiKey = request.getHeader(API_KEY_HEADER);
+    if (apiKey != null && apiKeyPlans.containsKey(apiKey)) {
+      tipo = "api-key";
+      chamador = "k:" + apiKey;
+      plan = apiKeyPlans.get(apiKey);
+    } else {
+      tipo = "ip";
+      chamador = "i:" + request.getRemoteAddr();
+      plan = ipPlan;
+    }
+    TokenBucket.Consumo consumo = consumir(chamador, plan, agora);
+
+    String clienteId = clienteId(caminho(request));
+    if (consumo.permitido() && clienteId != null) {
+      TokenBucket.Consumo consumoCliente = consumir(chamador + "|c:" + clienteId, clientePlan, agora);
+      if (!consumoCliente.permitido() || consumoCliente.restantes() < consumo.restantes()) {
+        tipo = "cliente";
+        plan = clientePlan;
+        consumo = consumoCliente;
+      }
+    }
+
+    response.setHeader("RateLimit-Limit", String.valueOf(plan.capacity()));
+    response.setHeader("RateLimit-Remaining", String.valueOf(consumo.restantes()));
+    response.setHeader("RateLimit-Reset", String.valueOf(segundos(consumo.cheioEmNanos())));
+    response.setHeader("RateLimit-Policy", plan.policy());
+
+    if (!consumo.permitido()) {
+      recusas.get(tipo).increment();
+      long retryAfter = segundos(consumo.retryAfterNanos());
+      exceptionResolver.resolveException(request, response, null, new RateLimitExceededException(
+          "Limite de requisições excedido; tente novamente em " + retryAfter + "s.", retryAfter));
+      return;
+    }
+
+    chain.doFilter(request, response);
+  }
+
+  private TokenBucket.Consumo consumir(String chave, Plan plan, long agora) {
+    return buckets.get(chave, k -> new TokenBucket(plan.capacity(), plan.period(), agora)).tryConsume(agora);
+  }
+
+  private static Counter recusas(String tipo, MeterRegistry registry) {
+    return Counter.builder("cursomc.ratelimit.rejected")
+        .description("Requisições recusadas pelo limite de taxa")
+        .tag("bucket", tipo)
+        .register(registry);
+  }
+
+  private static String caminho(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  /**
+   * Extrai o id numérico de {@code /clientes/{id}} ou
+   * {@code /clientes/{id}/...}.
+   */
+  private static String clienteId(String caminho) {
+    if (!caminho.startsWith(CLIENTES_PREFIX)) {
+      return null;
+    }
+    int inicio = CLIENTES_PREFIX.length();
+    int fim = inicio;
+    while (fim < caminho.length() && Character.isDigit(caminho.charAt(fim))) {
+      fim++;
+    }
+    if (fim == inicio || (fim < caminho.length() && caminho.charAt(fim) != '/')) {
+      return null;
+    }
+    return caminho.substring(inicio, fim);
+  }
+
+  private static long segundos(long nanos) {
+    return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * Cota de um balde: {@code capacity} requisições, repostas ao longo de
+   * {@code period}.
+   *
+   * @param capacity requisições permitidas em rajada
+   * @param period   tempo para repor a cota inteira
+   */
+  public record Plan(int capacity, Duration period) {
+
+    /**
+     * Valor do cabeçalho {@code RateLimit-Policy}.
+     *
+     * @return cota no formato {@code capacidade;w=segundos}
+     */
+    public String policy() {
+      return capacity + ";w=" + period.toSeconds();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Classe de configuração que separa leituras e escritas entre a base
+ * primária e uma réplica de leitura.
+ *
+ * <p>
+ * Ativada com {@code cursomc.datasource.replica.enabled=true}. Os métodos
+ * de serviço anotados com {@code @Transactional(readOnly = true)} passam a
+ * usar o pool da réplica ({@code cursomc.datasource.replica.pool.*});
+ * todas as demais transações, assim como Flyway e a inicialização de
+ * dados, continuam na primária ({@code spring.datasource.*}).
+ * </p>
+ *
+ * <p>
+ * O roteamento é feito por {@link LazyConnectionDataSourceProxy}: a
+ * conexão física só é obtida no primeiro comando SQL, depois que o
+ * gerenciador de transações marcou a conexão como somente leitura, e então
+ * é retirada do pool correspondente. Para leituras, o
+ * {@link ReplicaRoutingDataSource} ainda consulta o
+ * {@link ReplicaLagGuard}, que devolve as leituras à primária quando a
+ * réplica está atrasada ou indisponível.
+ * </p>
+ *
+ * <p>
+ * Para testar localmente, basta apontar a réplica para outra instância
+ * (ou, no H2 em memória, para a mesma URL, o que cria um segundo pool
+ * sobre o mesmo banco).
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "cursomc.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+  /**
+   * Pool da base primária, configurado por {@code spring.datasource.*}.
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Pool da réplica de leitura, configurado por
+   * {@code cursomc.datasource.replica.pool.*} (propriedades do Hikari, como
+   * {@code jdbc-url}, {@code username} e {@code maximum-pool-size}).
+   */
+  @Bean
+  @ConfigurationProperties("cursomc.datasource.replica.pool")
+  public HikariDataSource replicaDataSource() {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  /**
+   * Monitor de atraso da réplica.
+   */
+  @Bean
+  public ReplicaLagGuard replicaLagGuard(
+      @Qualifier("replicaDataSource") DataSource replica,
+      @Value("${cursomc.datasource.replica.lag-query:}") String lagQuery,
+      @Value("${cursomc.datasource.replica.max-lag:10s}") Duration maxLag) {
+    return new ReplicaLagGuard(replica, lagQuery, maxLag);
+  }
+
+  /**
+   * {@link DataSource} principal da aplicação, usado por JPA, Flyway e
+   * JDBC.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      ReplicaLagGuard replicaLagGuard) {
+
+    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+    proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, replicaLagGuard));
+    return proxy;
+  }
+}
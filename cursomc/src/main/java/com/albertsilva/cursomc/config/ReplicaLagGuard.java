@@ -0,0 +1,85 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Monitora o atraso de replicação da réplica de leitura.
+ *
+ * <p>
+ * Periodicamente executa na réplica a consulta configurada em
+ * {@code cursomc.datasource.replica.lag-query}, que deve retornar o atraso
+ * em segundos. Enquanto o atraso exceder
+ * {@code cursomc.datasource.replica.max-lag}, ou a réplica não responder,
+ * as transações somente leitura voltam a ser atendidas pela primária.
+ * </p>
+ *
+ * <p>
+ * Sem consulta configurada, a proteção fica desativada e a réplica é
+ * sempre considerada utilizável.
+ * </p>
+ */
+public class ReplicaLagGuard {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+  private final JdbcTemplate replica;
+  private final String lagQuery;
+  private final Duration maxLag;
+
+  private volatile boolean replicaUsable = true;
+
+  /**
+   * @param replica  pool da réplica
+   * @param lagQuery consulta que retorna o atraso em segundos, ou vazia
+   * @param maxLag   atraso máximo tolerado
+   */
+  public ReplicaLagGuard(DataSource replica, String lagQuery, Duration maxLag) {
+    this.replica = new JdbcTemplate(replica);
+    this.lagQuery = lagQuery;
+    this.maxLag = maxLag;
+  }
+
+  /**
+   * Indica se a réplica pode atender leituras no momento.
+   */
+  public boolean isReplicaUsable() {
+    return replicaUsable;
+  }
+
+  /**
+   * Mede o atraso da réplica e atualiza {@link #isReplicaUsable()}.
+   */
+  @Scheduled(fixedDelayString = "${cursomc.datasource.replica.lag-check-interval:5000}")
+  public void check() {
+
+    if (lagQuery == null || lagQuery.isBlank()) {
+      return;
+    }
+
+    boolean usable;
+    try {
+      Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+      usable = lagSeconds == null || lagSeconds * 1000 <= maxLag.toMillis();
+      if (!usable) {
+        logger.warn("Réplica {}s atrasada (máximo {}); leituras redirecionadas à primária", lagSeconds, maxLag);
+      }
+    } catch (DataAccessException e) {
+      usable = false;
+      logger.warn("Réplica indisponível; leituras redirecionadas à primária: {}", e.getMessage());
+    }
+
+    if (usable && !replicaUsable) {
+      logger.info("Réplica de leitura restabelecida");
+    }
+
+    replicaUsable = usable;
+  }
+}
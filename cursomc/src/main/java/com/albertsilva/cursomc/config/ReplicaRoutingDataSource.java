@@ -0,0 +1,41 @@
+package com.albertsilva.cursomc.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * {@link DataSource} usado pelas transações somente leitura.
+ *
+ * <p>
+ * Encaminha as conexões para a réplica enquanto o {@link ReplicaLagGuard}
+ * a considerar utilizável e, caso contrário, para a primária.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private enum Destino {
+    REPLICA, PRIMARIA
+  }
+
+  private final ReplicaLagGuard lagGuard;
+
+  /**
+   * @param primary  pool da primária
+   * @param replica  pool da réplica
+   * @param lagGuard monitor de atraso da réplica
+   */
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+    this.lagGuard = lagGuard;
+    setTargetDataSources(Map.of(Destino.REPLICA, replica, Destino.PRIMARIA, primary));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return lagGuard.isReplicaUsable() ? Destino.REPLICA : Destino.PRIMARIA;
+  }
+}
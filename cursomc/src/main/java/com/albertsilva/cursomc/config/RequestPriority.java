@@ -0,0 +1,50 @@
+package com.albertsilva.cursomc.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prioridade de um endpoint perante o limite adaptativo de concorrência
+ * ({@link ConcurrencyLimitInterceptor}).
+ *
+ * <p>
+ * Sob sobrecarga, requisições de menor prioridade são recusadas primeiro:
+ * cada nível só ocupa a sua fração do limite do recurso, configurada em
+ * {@code cursomc.concurrency-limit.share.*}. Endpoints sem a anotação têm
+ * prioridade {@link Level#NORMAL}.
+ * </p>
+ */
+@Documented
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestPriority {
+
+  /**
+   * Nível de prioridade do endpoint.
+   */
+  Level value();
+
+  /**
+   * Níveis de prioridade, do mais ao menos protegido.
+   */
+  enum Level {
+
+    /**
+     * Criação de pedidos: pode ocupar todo o limite.
+     */
+    CRITICAL,
+
+    /**
+     * Consultas por id e alterações pontuais.
+     */
+    NORMAL,
+
+    /**
+     * Listagens, lotes e exportações: os primeiros a serem recusados.
+     */
+    BULK
+  }
+}
@@ -0,0 +1,19 @@
+package com.albertsilva.cursomc.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Classe de configuração que habilita a execução de tarefas agendadas
+ * ({@link org.springframework.scheduling.annotation.Scheduled}).
+ *
+ * <p>
+ * Cada tarefa agendada da aplicação é ativada por sua própria
+ * propriedade; habilitar o agendamento não executa nenhuma tarefa por si
+ * só.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,40 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.albertsilva.cursomc.dto.cliente.response.ClienteResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
+import com.albertsilva.cursomc.services.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Classe de configuração das coalescências de leitura por id
+ * ({@link SingleFlight}) usadas por {@code PedidoService} e
+ * {@code ClienteService}.
+ *
+ * <p>
+ * A janela de reaproveitamento de cada uma é configurada por
+ * {@code cursomc.singleflight.<recurso>.staleness}; o padrão zero agrupa
+ * apenas leituras simultâneas, sem servir resultados já concluídos.
+ * </p>
+ */
+@Configuration
+public class SingleFlightConfig {
+
+  @Bean
+  public SingleFlight<Integer, PedidoResponse> pedidoSingleFlight(MeterRegistry registry,
+      @Value("${cursomc.singleflight.pedido.staleness:0ms}") Duration staleness) {
+    return new SingleFlight<>("pedido", staleness, registry);
+  }
+
+  @Bean
+  public SingleFlight<Integer, ClienteResponse> clienteSingleFlight(MeterRegistry registry,
+      @Value("${cursomc.singleflight.cliente.staleness:0ms}") Duration staleness) {
+    return new SingleFlight<>("cliente", staleness, registry);
+  }
+}
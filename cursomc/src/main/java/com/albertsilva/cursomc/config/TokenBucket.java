@@ -0,0 +1,88 @@
+package com.albertsilva.cursomc.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem bloqueio, usado pelo {@link RateLimitFilter}.
+ *
+ * <p>
+ * Em vez de guardar a quantidade de fichas e o instante da última
+ * recarga, o balde guarda um único instante: o "tempo teórico de
+ * chegada" (algoritmo GCRA), isto é, até quando as fichas já consumidas
+ * levam para ser repostas. Cada consumo adianta esse instante em
+ * {@code período / capacidade}; o consumo é recusado se o instante
+ * ultrapassar o momento atual em mais de um período. O resultado é o
+ * mesmo de um balde com {@code capacidade} fichas repostas à taxa
+ * {@code capacidade / período}, mas o estado cabe em um {@link AtomicLong}
+ * e é atualizado com uma única operação de compare-and-set, sem
+ * agendamentos de recarga.
+ * </p>
+ */
+public class TokenBucket {
+
+  private final int capacity;
+  private final long intervaloNanos;
+  private final long periodoNanos;
+
+  /**
+   * Instante, em {@link System#nanoTime()}, em que o balde estará cheio.
+   */
+  private final AtomicLong cheioEm;
+
+  /**
+   * Cria um balde cheio.
+   *
+   * @param capacity quantidade máxima de fichas (rajada permitida)
+   * @param period   tempo para repor todas as fichas
+   * @param agora    instante atual, em nanossegundos
+   */
+  public TokenBucket(int capacity, Duration period, long agora) {
+    this.capacity = capacity;
+    this.intervaloNanos = Math.max(1, period.toNanos() / capacity);
+    this.periodoNanos = intervaloNanos * capacity;
+    this.cheioEm = new AtomicLong(agora);
+  }
+
+  /**
+   * Tenta consumir uma ficha.
+   *
+   * @param agora instante atual, em nanossegundos
+   * @return resultado do consumo e estado do balde após ele
+   */
+  public Consumo tryConsume(long agora) {
+    while (true) {
+      long atual = cheioEm.get();
+      long proximo = Math.max(atual, agora) + intervaloNanos;
+      long divida = proximo - agora;
+
+      if (divida > periodoNanos) {
+        return new Consumo(false, 0, atual - agora, divida - periodoNanos);
+      }
+      if (cheioEm.compareAndSet(atual, proximo)) {
+        return new Consumo(true, (int) ((periodoNanos - divida) / intervaloNanos), divida, 0);
+      }
+    }
+  }
+
+  /**
+   * Retorna a capacidade do balde.
+   *
+   * @return quantidade máxima de fichas
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Resultado de uma tentativa de consumo.
+   *
+   * @param permitido       se a ficha foi consumida
+   * @param restantes       fichas ainda disponíveis
+   * @param cheioEmNanos    tempo até o balde voltar a estar cheio
+   * @param retryAfterNanos tempo até haver uma ficha disponível, se o
+   *                        consumo foi recusado
+   */
+  public record Consumo(boolean permitido, int restantes, long cheioEmNanos, long retryAfterNanos) {
+  }
+}
@@ -7,11 +7,16 @@ import java.util.List;
 import com.albertsilva.cursomc.dto.categoria.request.CategoriaInsertRequest;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Version;
 
 /**
  * Entidade que representa uma Categoria de produtos no domínio da aplicação.
@@ -41,8 +46,16 @@ import jakarta.persistence.ManyToMany;
  * A igualdade e o hashCode são baseados exclusivamente no identificador,
  * respeitando a identidade da entidade conforme boas práticas de JPA.
  * </p>
+ *
+ * <p>
+ * As categorias mudam pouco e são consultadas em toda listagem do
+ * catálogo, por isso ficam no cache de segundo nível (região
+ * {@code categoria}).
+ * </p>
  */
 @Entity(name = "categoria")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categoria")
 public class Categoria implements Serializable {
 
   /**
@@ -61,6 +74,17 @@ public class Categoria implements Serializable {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Integer id;
 
+  /**
+   * Versão para controle de concorrência otimista.
+   *
+   * <p>
+   * Incrementada a cada alteração; também identifica a representação
+   * atual da categoria (ETag).
+   * </p>
+   */
+  @Version
+  private Integer version;
+
   /**
    * Nome da categoria.
    */
@@ -132,6 +156,15 @@ public class Categoria implements Serializable {
     this.id = id;
   }
 
+  /**
+   * Retorna a versão da categoria.
+   *
+   * @return versão atual
+   */
+  public Integer getVersion() {
+    return version;
+  }
+
   /**
    * Retorna o nome da categoria.
    *
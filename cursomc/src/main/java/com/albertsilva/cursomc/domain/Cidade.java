@@ -2,6 +2,10 @@ package com.albertsilva.cursomc.domain;
 
 import java.io.Serializable;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -36,8 +40,15 @@ import jakarta.persistence.ManyToOne;
  * A igualdade e o hashCode são baseados exclusivamente no identificador,
  * seguindo boas práticas para entidades JPA.
  * </p>
+ *
+ * <p>
+ * Toda leitura de endereço resolve uma cidade; a entidade fica no cache
+ * de segundo nível (região {@code cidade}) para evitar essa ida ao banco.
+ * </p>
  */
 @Entity(name = "cidade")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cidade")
 public class Cidade implements Serializable {
 
   /**
@@ -18,6 +18,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 /**
  * Entidade que representa um Cliente no domínio da aplicação.
@@ -60,13 +62,26 @@ public class Cliente implements Serializable {
    * Identificador único do cliente.
    *
    * <p>
-   * Gerado automaticamente pelo banco de dados.
+   * Obtido da sequência {@code cliente_seq} em blocos de 50, o que permite
+   * ao Hibernate agrupar os INSERTs em lote (JDBC batching).
    * </p>
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+  @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
   private Integer id;
 
+  /**
+   * Versão para controle de concorrência otimista.
+   *
+   * <p>
+   * Incrementada a cada alteração do cliente ou de seus telefones; também
+   * identifica a representação atual do cliente (ETag).
+   * </p>
+   */
+  @Version
+  private Integer version;
+
   /**
    * Nome completo do cliente.
    */
@@ -215,6 +230,15 @@ public class Cliente implements Serializable {
     this.id = id;
   }
 
+  /**
+   * Retorna a versão do cliente.
+   *
+   * @return versão atual
+   */
+  public Integer getVersion() {
+    return version;
+  }
+
   /**
    * Retorna o nome do cliente.
    *
@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 
 /**
  * Entidade que representa um Endereço no domínio da aplicação.
@@ -52,11 +53,13 @@ public class Endereco implements Serializable {
    * Identificador único do endereço.
    *
    * <p>
-   * Gerado automaticamente pelo banco de dados.
+   * Obtido da sequência {@code endereco_seq} em blocos de 50, o que permite
+   * ao Hibernate agrupar os INSERTs em lote (JDBC batching).
    * </p>
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endereco_seq")
+  @SequenceGenerator(name = "endereco_seq", sequenceName = "endereco_seq", allocationSize = 50)
   private Integer id;
 
   /**
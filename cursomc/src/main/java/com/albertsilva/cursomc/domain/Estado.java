@@ -7,6 +7,10 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -36,9 +40,16 @@ import jakarta.persistence.OneToMany;
  * para entidades JPA.
  * </p>
  *
+ * <p>
+ * O conjunto de estados é praticamente imutável; a entidade fica no
+ * cache de segundo nível (região {@code estado}) com expiração longa.
+ * </p>
+ *
  * @author Albert Silva
  */
 @Entity(name = "estado")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "estado")
 public class Estado implements Serializable {
 
   /**
@@ -13,6 +13,7 @@ import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 
 /**
  * Entidade abstrata que representa um Pagamento no sistema.
@@ -60,6 +61,18 @@ public abstract class Pagamento implements Serializable {
   @Id
   private Integer id;
 
+  /**
+   * Versão do pagamento, usada no bloqueio otimista.
+   *
+   * <p>
+   * Duas transações que alterem o mesmo pagamento a partir da mesma versão
+   * não sobrescrevem uma à outra: a segunda falha na gravação com
+   * {@link jakarta.persistence.OptimisticLockException}.
+   * </p>
+   */
+  @Version
+  private Integer version;
+
   /**
    * Código do estado do pagamento.
    *
@@ -124,6 +137,15 @@ public abstract class Pagamento implements Serializable {
     this.id = id;
   }
 
+  /**
+   * Retorna a versão atual do pagamento.
+   *
+   * @return versão do pagamento
+   */
+  public Integer getVersion() {
+    return version;
+  }
+
   /**
    * Retorna o estado do pagamento como enum.
    *
@@ -17,6 +17,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 /**
  * Entidade que representa um Pedido no domínio do sistema.
@@ -84,9 +86,23 @@ public class Pedido implements Serializable {
    * Representa a identidade do Aggregate Root.
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+  @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
   private Integer id;
 
+  /**
+   * Versão do agregado para controle de concorrência otimista.
+   *
+   * <p>
+   * Alterações em itens e pagamento não alteram colunas de {@code pedido};
+   * por isso a atualização do agregado força o incremento da versão
+   * ({@code OPTIMISTIC_FORCE_INCREMENT}). A versão também identifica a
+   * representação atual do pedido (ETag).
+   * </p>
+   */
+  @Version
+  private Integer version;
+
   /**
    * Data e hora em que o pedido foi realizado.
    */
@@ -268,6 +284,10 @@ public class Pedido implements Serializable {
     this.id = id;
   }
 
+  public Integer getVersion() {
+    return version;
+  }
+
   public Date getInstante() {
     return instante;
   }
@@ -8,6 +8,10 @@ import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -16,6 +20,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 
 /**
  * Entidade que representa um Produto no domínio do sistema.
@@ -31,8 +36,16 @@ import jakarta.persistence.OneToMany;
  * preservando a modelagem de muitos-para-muitos com atributos adicionais
  * (quantidade, desconto, subtotal).
  * </p>
+ *
+ * <p>
+ * Cada item de pedido referencia um produto, que fica no cache de
+ * segundo nível (região {@code produto}). A expiração é mais curta que
+ * a das demais regiões, pois o preço pode ser alterado fora da aplicação.
+ * </p>
  */
 @Entity(name = "produto")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "produto")
 public class Produto implements Serializable {
 
   private static final long serialVersionUID = 1L;
@@ -41,7 +54,8 @@ public class Produto implements Serializable {
    * Identificador único do produto.
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produto_seq")
+  @SequenceGenerator(name = "produto_seq", sequenceName = "produto_seq", allocationSize = 50)
   private Integer id;
 
   /**
@@ -59,11 +73,13 @@ public class Produto implements Serializable {
    *
    * <p>
    * Relacionamento muitos-para-muitos mapeado pela tabela intermediária
-   * {@code PRODUTO_CATEGORIA}.
+   * {@code PRODUTO_CATEGORIA}. A coleção também é mantida no cache de
+   * segundo nível (região {@code produto-categorias}).
    * </p>
    */
   @JsonIgnore
   @ManyToMany
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "produto-categorias")
   @JoinTable(name = "PRODUTO_CATEGORIA", joinColumns = @JoinColumn(name = "produto_id"), inverseJoinColumns = @JoinColumn(name = "categoria_id"))
   private List<Categoria> categorias = new ArrayList<>();
 
@@ -0,0 +1,68 @@
+package com.albertsilva.cursomc.domain.enums;
+
+/**
+ * Enumeração que representa a situação de um pedido recebido de forma
+ * assíncrona ({@code POST /pedidos/async}) na fila {@code pedido_intake}.
+ *
+ * <p>
+ * <strong>Ciclo de vida:</strong>
+ * </p>
+ * <ul>
+ * <li>{@link #PENDENTE} – Recebido e aguardando um worker</li>
+ * <li>{@link #PROCESSANDO} – Reservado por um worker</li>
+ * <li>{@link #CONCLUIDO} – Pedido gravado</li>
+ * <li>{@link #FALHOU} – Pedido rejeitado; o motivo fica registrado</li>
+ * </ul>
+ */
+public enum StatusIntake {
+
+  PENDENTE(1, "Pendente"),
+  PROCESSANDO(2, "Processando"),
+  CONCLUIDO(3, "Concluído"),
+  FALHOU(4, "Falhou");
+
+  /**
+   * Código numérico persistido na coluna {@code status}.
+   */
+  private Integer cod;
+
+  /**
+   * Descrição textual da situação.
+   */
+  private String descricao;
+
+  private StatusIntake(Integer cod, String descricao) {
+    this.cod = cod;
+    this.descricao = descricao;
+  }
+
+  public Integer getCod() {
+    return cod;
+  }
+
+  public String getDescricao() {
+    return descricao;
+  }
+
+  /**
+   * Converte um código numérico em seu respectivo {@code StatusIntake}.
+   *
+   * @param cod código persistido
+   * @return situação correspondente, ou {@code null} se o código for nulo
+   * @throws IllegalArgumentException caso o código não corresponda a
+   *                                  nenhuma situação
+   */
+  public static StatusIntake toEnum(Integer cod) {
+    if (cod == null) {
+      return null;
+    }
+
+    for (StatusIntake x : StatusIntake.values()) {
+      if (cod.equals(x.getCod())) {
+        return x;
+      }
+    }
+
+    throw new IllegalArgumentException("Id inválido: " + cod);
+  }
+}
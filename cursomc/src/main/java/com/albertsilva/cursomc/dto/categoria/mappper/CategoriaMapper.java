@@ -47,7 +47,8 @@ public class CategoriaMapper {
   public CategoriaResponse toResponse(Categoria categoria) {
     return new CategoriaResponse(
         categoria.getId(),
-        categoria.getNome());
+        categoria.getNome(),
+        categoria.getVersion());
   }
 
   /**
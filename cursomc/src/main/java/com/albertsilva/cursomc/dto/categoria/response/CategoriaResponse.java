@@ -1,5 +1,7 @@
 package com.albertsilva.cursomc.dto.categoria.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Data Transfer Object (DTO) responsável por representar
  * os dados de saída da entidade Categoria.
@@ -22,8 +24,15 @@ package com.albertsilva.cursomc.dto.categoria.response;
  * <li>Permitir versionamento e evolução independente do modelo de domínio.</li>
  * </ul>
  *
- * @param id   Identificador único da categoria.
- * @param nome Nome da categoria.
+ * <p>
+ * A versão não é serializada: ela acompanha a resposta em cache para que
+ * o ETag de {@code GET /categorias/{id}} seja calculado sem consultar o
+ * banco.
+ * </p>
+ *
+ * @param id      Identificador único da categoria.
+ * @param nome    Nome da categoria.
+ * @param version Versão da categoria no momento da leitura.
  */
 public record CategoriaResponse(
 
@@ -35,5 +44,10 @@ public record CategoriaResponse(
     /**
      * Nome da categoria.
      */
-    String nome) {
+    String nome,
+
+    /**
+     * Versão da categoria no momento da leitura.
+     */
+    @JsonIgnore Integer version) {
 }
\ No newline at end of file
@@ -97,7 +97,8 @@ public class ClienteMapper {
         cliente.getCpfOuCnpj(),
         cliente.getTipo().getCod(),
         cliente.getTelefones(),
-        enderecos);
+        enderecos,
+        cliente.getVersion());
   }
 
   /**
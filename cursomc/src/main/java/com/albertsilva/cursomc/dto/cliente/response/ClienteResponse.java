@@ -3,6 +3,8 @@ package com.albertsilva.cursomc.dto.cliente.response;
 import java.util.List;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Data Transfer Object (DTO) responsável por representar
  * os dados de saída da entidade Cliente.
@@ -17,6 +19,11 @@ import java.util.Set;
  * e lista de endereços associados.
  * </p>
  *
+ * <p>
+ * A versão não é serializada; acompanha a resposta para que o ETag de
+ * {@code GET /clientes/{id}} corresponda à leitura que produziu o corpo.
+ * </p>
+ *
  * @param id        Identificador único do cliente.
  * @param nome      Nome do cliente.
  * @param email     E-mail do cliente.
@@ -24,6 +31,7 @@ import java.util.Set;
  * @param tipo      Código do tipo de cliente.
  * @param telefones Conjunto de telefones associados.
  * @param enderecos Lista de endereços vinculados ao cliente.
+ * @param version   Versão do cliente no momento da leitura.
  */
 public record ClienteResponse(
         Integer id,
@@ -32,5 +40,6 @@ public record ClienteResponse(
         String cpfOuCnpj,
         Integer tipo,
         Set<String> telefones,
-        List<EnderecoResponse> enderecos) {
+        List<EnderecoResponse> enderecos,
+        @JsonIgnore Integer version) {
 }
\ No newline at end of file
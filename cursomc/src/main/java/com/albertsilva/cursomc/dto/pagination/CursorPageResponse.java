@@ -0,0 +1,25 @@
+package com.albertsilva.cursomc.dto.pagination;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa uma página obtida por
+ * paginação por cursor (keyset pagination).
+ *
+ * <p>
+ * Diferente de {@code Page}, não expõe total de elementos nem número de
+ * página, pois esses valores exigiriam uma contagem ou um deslocamento
+ * (OFFSET) sobre a tabela inteira.
+ * </p>
+ *
+ * @param content    registros da página
+ * @param size       tamanho de página solicitado
+ * @param nextCursor cursor para a próxima página, ou {@code null} se esta
+ *                   for a última
+ * @param <T>        tipo dos registros
+ */
+public record CursorPageResponse<T>(
+    List<T> content,
+    int size,
+    String nextCursor) {
+}
@@ -0,0 +1,94 @@
+package com.albertsilva.cursomc.dto.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+
+/**
+ * Cursor opaco utilizado na paginação por chave (keyset pagination).
+ *
+ * <p>
+ * Guarda o último valor da coluna de ordenação e o identificador do
+ * último registro retornado. A próxima página é obtida com uma consulta
+ * de busca ("seek") a partir desse par, cujo custo depende apenas do
+ * tamanho da página e não da profundidade da navegação.
+ * </p>
+ *
+ * <p>
+ * O formato serializado é Base64 URL-safe e não deve ser interpretado
+ * pelos clientes da API.
+ * </p>
+ *
+ * @param sortValue valor da coluna de ordenação do último registro
+ * @param id        identificador do último registro (desempate)
+ */
+public record KeysetCursor(String sortValue, Integer id) {
+
+  /**
+   * Tamanho máximo de página aceito na paginação por cursor.
+   */
+  public static final int MAX_PAGE_SIZE = 100;
+
+  private static final char SEPARATOR = '|';
+
+  /**
+   * Serializa o cursor no formato opaco exposto pela API.
+   *
+   * @return cursor codificado
+   */
+  public String encode() {
+    String raw = sortValue + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Interpreta um cursor recebido da API.
+   *
+   * <p>
+   * O identificador é lido após o último separador, permitindo que o
+   * valor de ordenação contenha o próprio caractere separador.
+   * </p>
+   *
+   * @param encoded cursor codificado
+   * @return cursor decodificado
+   * @throws InvalidRequestException se o cursor for inválido
+   */
+  public static KeysetCursor decode(String encoded) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+      int pos = raw.lastIndexOf(SEPARATOR);
+      return new KeysetCursor(raw.substring(0, pos), Integer.valueOf(raw.substring(pos + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new InvalidRequestException("Cursor de paginação inválido.");
+    }
+  }
+
+  /**
+   * Retorna o valor de ordenação interpretado como número inteiro longo.
+   *
+   * @return valor de ordenação numérico
+   * @throws InvalidRequestException se o valor não for numérico
+   */
+  public long sortValueAsLong() {
+    try {
+      return Long.parseLong(sortValue);
+    } catch (NumberFormatException e) {
+      throw new InvalidRequestException("Cursor de paginação inválido.");
+    }
+  }
+
+  /**
+   * Valida o tamanho de página solicitado.
+   *
+   * @param size tamanho de página solicitado
+   * @return o próprio tamanho, quando válido
+   * @throws InvalidRequestException se estiver fora de 1..{@value #MAX_PAGE_SIZE}
+   */
+  public static int checkPageSize(int size) {
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      throw new InvalidRequestException("Tamanho de página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+    }
+    return size;
+  }
+}
@@ -0,0 +1,15 @@
+package com.albertsilva.cursomc.dto.pedido.event;
+
+/**
+ * Conteúdo do evento publicado quando o estado do pagamento de um pedido
+ * é alterado.
+ *
+ * @param pedidoId       Identificador do pedido (e do pagamento).
+ * @param estadoAnterior Estado do pagamento antes da alteração.
+ * @param estado         Novo estado do pagamento.
+ */
+public record PagamentoEstadoAlteradoEvent(
+    Integer pedidoId,
+    String estadoAnterior,
+    String estado) {
+}
@@ -1,6 +1,7 @@
 package com.albertsilva.cursomc.dto.pedido.mapper;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -11,6 +12,9 @@ import com.albertsilva.cursomc.domain.Endereco;
 import com.albertsilva.cursomc.domain.ItemPedido;
 import com.albertsilva.cursomc.domain.Pagamento;
 import com.albertsilva.cursomc.domain.Pedido;
+import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
+import com.albertsilva.cursomc.dto.pedido.projection.ItemPedidoView;
+import com.albertsilva.cursomc.dto.pedido.projection.PedidoView;
 import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
 import com.albertsilva.cursomc.dto.pedido.response.ItemPedidoResponse;
 import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
@@ -28,6 +32,7 @@ import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
  * <ul>
  * <li>{@link PedidoInsertRequest} → {@link Pedido}</li>
  * <li>{@link Pedido} → {@link PedidoResponse}</li>
+ * <li>{@link PedidoView} + {@link ItemPedidoView} → {@link PedidoResponse}</li>
  * </ul>
  */
 @Component
@@ -96,6 +101,35 @@ public class PedidoMapper {
         pedido.getCliente().getNome(),
         pedido.getPagamento().getEstado().name(),
         itens,
-        pedido.getTotal());
+        pedido.getTotal(),
+        null);
   }
-}
\ No newline at end of file
+
+  /**
+   * Converte as projeções de leitura de um pedido em {@link PedidoResponse}.
+   *
+   * <p>
+   * Usado pelo caminho de leitura, que não carrega entidades; total e
+   * subtotais já chegam calculados pelo banco de dados.
+   * </p>
+   *
+   * @param pedido cabeçalho do pedido
+   * @param itens  itens do pedido
+   * @return DTO contendo os dados consolidados do pedido
+   */
+  public PedidoResponse toResponse(PedidoView pedido, List<ItemPedidoView> itens) {
+
+    Set<ItemPedidoResponse> itensResponse = itens.stream()
+        .map(ip -> new ItemPedidoResponse(ip.produtoNome(), ip.quantidade(), ip.preco(), ip.subtotal()))
+        .collect(Collectors.toSet());
+
+    return new PedidoResponse(
+        pedido.id(),
+        pedido.instante(),
+        pedido.clienteNome(),
+        EstadoPagamento.toEnum(pedido.estadoPagamento()).name(),
+        itensResponse,
+        pedido.total(),
+        pedido.version());
+  }
+}
@@ -0,0 +1,23 @@
+package com.albertsilva.cursomc.dto.pedido.projection;
+
+/**
+ * Projeção somente leitura de um item de pedido.
+ *
+ * <p>
+ * Carregada em lote para todos os pedidos de uma página; o
+ * {@code pedidoId} permite agrupar os itens por pedido em memória.
+ * </p>
+ *
+ * @param pedidoId    Identificador do pedido ao qual o item pertence.
+ * @param produtoNome Nome do produto.
+ * @param quantidade  Quantidade adquirida.
+ * @param preco       Preço unitário aplicado no momento da compra.
+ * @param subtotal    Quantidade × preço, calculado pelo banco de dados.
+ */
+public record ItemPedidoView(
+    Integer pedidoId,
+    String produtoNome,
+    Integer quantidade,
+    Double preco,
+    Double subtotal) {
+}
@@ -0,0 +1,29 @@
+package com.albertsilva.cursomc.dto.pedido.projection;
+
+import java.util.Date;
+
+/**
+ * Projeção somente leitura do cabeçalho de um Pedido.
+ *
+ * <p>
+ * Construída diretamente pela consulta JPQL ({@code select new}), sem
+ * instanciar a entidade {@code Pedido} nem registrá-la no contexto de
+ * persistência. O total é calculado pelo banco de dados.
+ * </p>
+ *
+ * @param id              Identificador do pedido.
+ * @param instante        Data e hora da criação do pedido.
+ * @param clienteNome     Nome do cliente associado.
+ * @param estadoPagamento Código do estado do pagamento.
+ * @param total           Soma de quantidade × preço dos itens.
+ * @param version         Versões do pedido e do cliente
+ *                        ({@code pedido.cliente}), lidas na mesma consulta.
+ */
+public record PedidoView(
+    Integer id,
+    Date instante,
+    String clienteNome,
+    Integer estadoPagamento,
+    Double total,
+    String version) {
+}
@@ -0,0 +1,20 @@
+package com.albertsilva.cursomc.dto.pedido.response;
+
+/**
+ * Representação já serializada de um {@link PedidoResponse}.
+ *
+ * <p>
+ * Mantida em cache para pedidos liquidados, cujo conteúdo praticamente não
+ * muda: os bytes são escritos diretamente na resposta HTTP, sem
+ * mapeamento nem serialização a cada leitura.
+ * </p>
+ *
+ * @param version versão (ETag) do pedido no momento da serialização.
+ * @param json    Corpo JSON codificado em UTF-8.
+ * @param gzip    O mesmo corpo já compactado em gzip.
+ */
+public record EncodedPedidoResponse(
+    String version,
+    byte[] json,
+    byte[] gzip) {
+}
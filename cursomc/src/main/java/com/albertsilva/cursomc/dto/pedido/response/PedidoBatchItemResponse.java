@@ -0,0 +1,49 @@
+package com.albertsilva.cursomc.dto.pedido.response;
+
+import com.albertsilva.cursomc.services.exceptions.BusinessException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Data Transfer Object (DTO) que representa o resultado de um pedido
+ * enviado na ingestão em lote.
+ *
+ * <p>
+ * Cada pedido do lote é reportado individualmente: a falha de um pedido
+ * não impede a gravação dos demais.
+ * </p>
+ *
+ * <p>
+ * A causa da falha e a resposta do pedido gravado não são serializadas;
+ * servem a quem grava um único pedido por este caminho (group commit) e
+ * precisa responder como a criação unitária.
+ * </p>
+ *
+ * @param indice   Posição do pedido no array enviado (base zero).
+ * @param sucesso  Indica se o pedido foi gravado.
+ * @param pedidoId Identificador do pedido criado, quando gravado.
+ * @param erro     Motivo da falha, quando não gravado.
+ * @param causa    Exceção correspondente à falha, quando não gravado.
+ * @param pedido   Pedido gravado, montado na transação que o gravou.
+ */
+public record PedidoBatchItemResponse(
+    int indice,
+    boolean sucesso,
+    Integer pedidoId,
+    String erro,
+    @JsonIgnore BusinessException causa,
+    @JsonIgnore PedidoResponse pedido) {
+
+  /**
+   * Cria o resultado de um pedido gravado com sucesso.
+   */
+  public static PedidoBatchItemResponse ok(int indice, PedidoResponse pedido) {
+    return new PedidoBatchItemResponse(indice, true, pedido.id(), null, null, pedido);
+  }
+
+  /**
+   * Cria o resultado de um pedido rejeitado.
+   */
+  public static PedidoBatchItemResponse falha(int indice, BusinessException causa) {
+    return new PedidoBatchItemResponse(indice, false, null, causa.getMessage(), causa, null);
+  }
+}
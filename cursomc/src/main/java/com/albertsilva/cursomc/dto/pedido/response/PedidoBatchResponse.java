@@ -0,0 +1,30 @@
+package com.albertsilva.cursomc.dto.pedido.response;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que consolida o resultado da ingestão
+ * de pedidos em lote.
+ *
+ * @param total      Quantidade de pedidos recebidos.
+ * @param sucessos   Quantidade de pedidos gravados.
+ * @param falhas     Quantidade de pedidos rejeitados.
+ * @param resultados Resultado individual de cada pedido, na ordem de envio.
+ */
+public record PedidoBatchResponse(
+    int total,
+    int sucessos,
+    int falhas,
+    List<PedidoBatchItemResponse> resultados) {
+
+  /**
+   * Consolida os resultados individuais em uma resposta.
+   *
+   * @param resultados resultados na ordem de envio
+   * @return resposta consolidada
+   */
+  public static PedidoBatchResponse of(List<PedidoBatchItemResponse> resultados) {
+    int sucessos = (int) resultados.stream().filter(PedidoBatchItemResponse::sucesso).count();
+    return new PedidoBatchResponse(resultados.size(), sucessos, resultados.size() - sucessos, resultados);
+  }
+}
@@ -0,0 +1,18 @@
+package com.albertsilva.cursomc.dto.pedido.response;
+
+/**
+ * Data Transfer Object (DTO) que representa a situação de um pedido
+ * recebido de forma assíncrona.
+ *
+ * @param id       Identificador do recebimento.
+ * @param status   Situação atual ({@code PENDENTE}, {@code PROCESSANDO},
+ *                 {@code CONCLUIDO} ou {@code FALHOU}).
+ * @param pedidoId Identificador do pedido gravado, quando concluído.
+ * @param erro     Motivo da rejeição, quando falhou.
+ */
+public record PedidoIntakeResponse(
+    Long id,
+    String status,
+    Integer pedidoId,
+    String erro) {
+}
@@ -3,6 +3,8 @@ package com.albertsilva.cursomc.dto.pedido.response;
 import java.util.Date;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Data Transfer Object (DTO) responsável por representar
  * os dados consolidados de um Pedido.
@@ -17,12 +19,20 @@ import java.util.Set;
  * itens associados e valor total.
  * </p>
  *
+ * <p>
+ * A versão não é serializada: ela é lida na mesma consulta que os dados e
+ * serve de ETag da resposta. Respostas montadas a partir da entidade (nas
+ * escritas) não a conhecem antes do commit e a trazem nula.
+ * </p>
+ *
  * @param id              Identificador único do pedido.
  * @param instante        Data e hora da criação do pedido.
  * @param clienteNome     Nome do cliente associado.
  * @param estadoPagamento Estado atual do pagamento.
  * @param itens           Conjunto de itens do pedido.
  * @param total           Valor total do pedido.
+ * @param version         Versões do pedido e do cliente no momento da
+ *                        leitura, ou {@code null}.
  */
 public record PedidoResponse(
     Integer id,
@@ -30,5 +40,6 @@ public record PedidoResponse(
     String clienteNome,
     String estadoPagamento,
     Set<ItemPedidoResponse> itens,
-    Double total) {
+    Double total,
+    @JsonIgnore String version) {
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.albertsilva.cursomc.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.albertsilva.cursomc.domain.Cliente;
@@ -17,29 +23,103 @@ import com.albertsilva.cursomc.domain.Cliente;
  * </p>
  *
  * <p>
- * O método {@link #findAll(Pageable)} foi sobrescrito para utilizar
- * {@link EntityGraph}, garantindo o carregamento antecipado (fetch eager)
- * dos relacionamentos {@code enderecos} e {@code enderecos.cidade}.
+ * A listagem paginada não aplica {@code fetch join} sobre coleções na
+ * mesma consulta que pagina, pois isso obriga o Hibernate a carregar a
+ * tabela inteira e paginar em memória (HHH000104). Em vez disso:
  * </p>
  *
+ * <ol>
+ * <li>{@link #findIdsPaged(Pageable)} pagina apenas os identificadores no
+ * banco;</li>
+ * <li>{@link #findAllWithEnderecosByIdIn(Collection)} e
+ * {@link #findAllWithTelefonesByIdIn(Collection)} inicializam as coleções
+ * dos clientes da página em consultas separadas, evitando tanto o N+1
+ * quanto o produto cartesiano entre {@code enderecos} e
+ * {@code telefones}.</li>
+ * </ol>
+ *
  * <p>
- * Essa estratégia evita o problema de N+1 queries e melhora o desempenho
- * em cenários de listagem paginada.
+ * {@link #findFirstIdsByNome(Limit)} e
+ * {@link #findIdsAfter(String, Integer, Limit)} oferecem paginação por
+ * chave sobre o par ({@code nome}, {@code id}), sem OFFSET.
  * </p>
- *
- * @see EntityGraph
  */
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
 
   /**
-   * Retorna uma página de clientes com os relacionamentos
-   * {@code enderecos} e {@code cidade} previamente carregados.
+   * Retorna uma página contendo apenas os identificadores dos clientes.
    *
    * @param pageable objeto de paginação e ordenação
-   * @return página contendo clientes com seus endereços
+   * @return página de identificadores de clientes
+   */
+  @Query(value = "select c.id from cliente c", countQuery = "select count(c) from cliente c")
+  Page<Integer> findIdsPaged(Pageable pageable);
+
+  /**
+   * Retorna os identificadores da primeira página na ordenação
+   * ({@code nome}, {@code id}).
+   *
+   * @param limit quantidade máxima de identificadores
+   * @return identificadores ordenados
+   */
+  @Query("select c.id from cliente c order by c.nome, c.id")
+  List<Integer> findFirstIdsByNome(Limit limit);
+
+  /**
+   * Retorna os identificadores posteriores ao par ({@code nome},
+   * {@code id}) informado, na mesma ordenação de
+   * {@link #findFirstIdsByNome(Limit)}.
+   *
+   * @param nome  nome do último cliente já retornado
+   * @param id    identificador do último cliente já retornado
+   * @param limit quantidade máxima de identificadores
+   * @return identificadores ordenados
+   */
+  @Query("""
+      select c.id from cliente c
+      where (c.nome, c.id) > (:nome, :id)
+      order by c.nome, c.id
+      """)
+  List<Integer> findIdsAfter(@Param("nome") String nome, @Param("id") Integer id, Limit limit);
+
+  /**
+   * Carrega os clientes informados com {@code enderecos},
+   * {@code enderecos.cidade} e o respectivo estado inicializados.
+   *
+   * @param ids identificadores dos clientes
+   * @return clientes com seus endereços carregados
+   */
+  @Query("""
+      select distinct c from cliente c
+        left join fetch c.enderecos e
+        left join fetch e.cidade ci
+        left join fetch ci.estado
+      where c.id in :ids
+      """)
+  List<Cliente> findAllWithEnderecosByIdIn(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Inicializa a coleção {@code telefones} dos clientes informados.
+   *
+   * <p>
+   * Executada na mesma transação de
+   * {@link #findAllWithEnderecosByIdIn(Collection)}, reaproveita as
+   * instâncias já presentes no contexto de persistência.
+   * </p>
+   *
+   * @param ids identificadores dos clientes
+   * @return clientes com seus telefones carregados
+   */
+  @Query("select distinct c from cliente c left join fetch c.telefones where c.id in :ids")
+  List<Cliente> findAllWithTelefonesByIdIn(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Retorna apenas a versão do cliente, sem carregar a entidade.
+   *
+   * @param id identificador do cliente
+   * @return versão, ou vazio se o cliente não existir
    */
-  @Override
-  @EntityGraph(attributePaths = { "enderecos", "enderecos.cidade" })
-  Page<Cliente> findAll(Pageable pageable);
-}
\ No newline at end of file
+  @Query("select c.version from cliente c where c.id = :id")
+  Optional<Integer> findVersionById(@Param("id") Integer id);
+}
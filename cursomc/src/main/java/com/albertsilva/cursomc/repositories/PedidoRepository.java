@@ -1,9 +1,21 @@
 package com.albertsilva.cursomc.repositories;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.albertsilva.cursomc.domain.Pedido;
+import com.albertsilva.cursomc.dto.pedido.projection.ItemPedidoView;
+import com.albertsilva.cursomc.dto.pedido.projection.PedidoView;
 
 /**
  * Repositório de persistência da entidade {@link Pedido}.
@@ -18,8 +30,119 @@ import com.albertsilva.cursomc.domain.Pedido;
  * Todos os relacionamentos associados (itens, pagamento, cliente)
  * são gerenciados através da entidade principal.
  * </p>
+ *
+ * <p>
+ * As leituras da API não carregam entidades: as consultas de listagem e
+ * busca por id projetam diretamente em {@link PedidoView}, com o total
+ * calculado pelo banco, e os itens da página são obtidos em uma única
+ * consulta por {@link #findItemViewsByPedidoIdIn(Collection)}. Assim não
+ * há hidratação de entidades, snapshots de dirty checking nem crescimento
+ * do contexto de persistência.
+ * </p>
+ *
+ * <p>
+ * Para navegação profunda, {@link #findFirstViewsByInstante(Limit)} e
+ * {@link #findViewsAfter(Date, Integer, Limit)} implementam paginação por
+ * chave sobre o par ({@code instante}, {@code id}), sem OFFSET.
+ * </p>
  */
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
+public interface PedidoRepository extends JpaRepository<Pedido, Integer>, PedidoVersionRepository {
+
+  /**
+   * Projeção comum às consultas de cabeçalho de pedido.
+   */
+  String VIEW_SELECT = """
+      select new com.albertsilva.cursomc.dto.pedido.projection.PedidoView(
+        p.id, p.instante, c.nome, pg.estado,
+        (select coalesce(sum(i.quantidade * i.preco), 0.0) from item_pedido i where i.id.pedido = p),
+        concat(str(p.version), '.', str(c.version)))
+      from pedido p
+        join p.cliente c
+        left join p.pagamento pg
+      """;
+
+  /**
+   * Retorna uma página de cabeçalhos de pedidos.
+   *
+   * <p>
+   * A ordenação informada no {@link Pageable} é aplicada diretamente
+   * sobre o alias {@code p}, mantendo a paginação no banco de dados.
+   * </p>
+   *
+   * @param pageable parâmetros de paginação e ordenação
+   * @return página de {@link PedidoView}
+   */
+  @Query(value = VIEW_SELECT, countQuery = "select count(p) from pedido p")
+  Page<PedidoView> findViewsPaged(Pageable pageable);
+
+  /**
+   * Retorna os cabeçalhos da primeira página na ordenação
+   * ({@code instante}, {@code id}).
+   *
+   * @param limit quantidade máxima de pedidos
+   * @return cabeçalhos ordenados
+   */
+  @Query(VIEW_SELECT + " order by p.instante, p.id")
+  List<PedidoView> findFirstViewsByInstante(Limit limit);
+
+  /**
+   * Retorna os cabeçalhos posteriores ao par ({@code instante},
+   * {@code id}) informado, na mesma ordenação de
+   * {@link #findFirstViewsByInstante(Limit)}.
+   *
+   * <p>
+   * A comparação de tupla permite ao banco posicionar-se diretamente na
+   * chave informada, mantendo o custo proporcional ao tamanho da página.
+   * </p>
+   *
+   * @param instante instante do último pedido já retornado
+   * @param id       identificador do último pedido já retornado
+   * @param limit    quantidade máxima de pedidos
+   * @return cabeçalhos ordenados
+   */
+  @Query(VIEW_SELECT + " where (p.instante, p.id) > (:instante, :id) order by p.instante, p.id")
+  List<PedidoView> findViewsAfter(@Param("instante") Date instante, @Param("id") Integer id, Limit limit);
+
+  /**
+   * Retorna o cabeçalho de um pedido.
+   *
+   * @param id identificador do pedido
+   * @return cabeçalho, ou vazio se o pedido não existir
+   */
+  @Query(VIEW_SELECT + " where p.id = :id")
+  Optional<PedidoView> findViewById(@Param("id") Integer id);
+
+  /**
+   * Retorna os itens dos pedidos informados, já com nome do produto e
+   * subtotal.
+   *
+   * @param ids identificadores dos pedidos
+   * @return itens de todos os pedidos, sem ordem definida
+   */
+  @Query("""
+      select new com.albertsilva.cursomc.dto.pedido.projection.ItemPedidoView(
+        i.id.pedido.id, pr.nome, i.quantidade, i.preco, i.quantidade * i.preco)
+      from item_pedido i
+        join i.id.produto pr
+      where i.id.pedido.id in :ids
+      """)
+  List<ItemPedidoView> findItemViewsByPedidoIdIn(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Retorna a versão do pedido combinada à versão do cliente, sem carregar
+   * entidades.
+   *
+   * <p>
+   * A representação do pedido inclui o nome do cliente; por isso a
+   * alteração de qualquer um dos dois deve produzir um valor diferente.
+   * </p>
+   *
+   * @param id identificador do pedido
+   * @return versões no formato {@code pedido.cliente}, ou vazio se o
+   *         pedido não existir
+   */
+  @Query("select concat(str(p.version), '.', str(c.version)) from pedido p join p.cliente c where p.id = :id")
+  Optional<String> findVersionById(@Param("id") Integer id);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.albertsilva.cursomc.repositories;
+
+import com.albertsilva.cursomc.domain.Pedido;
+
+/**
+ * Fragmento de repositório para controle explícito da versão de
+ * {@link Pedido}.
+ *
+ * <p>
+ * Itens e pagamento ficam em tabelas próprias; alterá-los não modifica
+ * nenhuma coluna de {@code pedido} e, portanto, não incrementaria a versão
+ * do agregado por si só.
+ * </p>
+ */
+public interface PedidoVersionRepository {
+
+  /**
+   * Agenda o incremento da versão do pedido para o commit da transação
+   * atual ({@code OPTIMISTIC_FORCE_INCREMENT}).
+   *
+   * @param pedido pedido gerenciado pelo contexto de persistência
+   */
+  void incrementVersion(Pedido pedido);
+}
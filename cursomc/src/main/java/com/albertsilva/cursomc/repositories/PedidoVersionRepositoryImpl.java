@@ -0,0 +1,28 @@
+package com.albertsilva.cursomc.repositories;
+
+import com.albertsilva.cursomc.domain.Pedido;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementação de {@link PedidoVersionRepository}.
+ *
+ * <p>
+ * Usa {@link EntityManager#lock} sobre a entidade já carregada: um
+ * {@code @Lock} na consulta de busca não registra o incremento no
+ * Hibernate, e {@code find} com bloqueio estende o bloqueio às
+ * associações carregadas em conjunto, que não são versionadas.
+ * </p>
+ */
+class PedidoVersionRepositoryImpl implements PedidoVersionRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public void incrementVersion(Pedido pedido) {
+    entityManager.lock(pedido, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+  }
+}
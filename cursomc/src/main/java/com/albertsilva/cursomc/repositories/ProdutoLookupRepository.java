@@ -0,0 +1,32 @@
+package com.albertsilva.cursomc.repositories;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.albertsilva.cursomc.domain.Produto;
+
+/**
+ * Fragmento de repositório para resolução agrupada de {@link Produto}.
+ *
+ * <p>
+ * Usado na montagem de pedidos, em que todos os produtos de um pedido
+ * precisam ser conhecidos (inclusive o preço) antes da gravação.
+ * </p>
+ */
+public interface ProdutoLookupRepository {
+
+  /**
+   * Resolve os produtos informados de uma só vez.
+   *
+   * <p>
+   * Produtos já presentes no contexto de persistência ou no cache de
+   * segundo nível são reaproveitados; os demais são carregados em uma
+   * única consulta {@code IN}.
+   * </p>
+   *
+   * @param ids identificadores dos produtos
+   * @return produtos encontrados, indexados pelo identificador; ids
+   *         inexistentes ficam ausentes do mapa
+   */
+  Map<Integer, Produto> findAllByIdAsMap(Collection<Integer> ids);
+}
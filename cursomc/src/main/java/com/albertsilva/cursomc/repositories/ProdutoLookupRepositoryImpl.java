@@ -0,0 +1,45 @@
+package com.albertsilva.cursomc.repositories;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.SessionCheckMode;
+
+import com.albertsilva.cursomc.domain.Produto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementação de {@link ProdutoLookupRepository}.
+ *
+ * <p>
+ * Usa o carregamento múltiplo do Hibernate ({@link Session#findMultiple}),
+ * que consulta o contexto de persistência e o cache de segundo nível antes
+ * de ir ao banco, ao contrário de {@code findAllById}, que sempre executa
+ * a consulta.
+ * </p>
+ */
+class ProdutoLookupRepositoryImpl implements ProdutoLookupRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public Map<Integer, Produto> findAllByIdAsMap(Collection<Integer> ids) {
+
+    List<Produto> produtos = entityManager.unwrap(Session.class)
+        .findMultiple(Produto.class, List.copyOf(ids), SessionCheckMode.ENABLED);
+
+    Map<Integer, Produto> porId = new HashMap<>();
+    for (Produto produto : produtos) {
+      if (produto != null) {
+        porId.put(produto.getId(), produto);
+      }
+    }
+    return porId;
+  }
+}
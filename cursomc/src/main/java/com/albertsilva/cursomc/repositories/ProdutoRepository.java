@@ -20,6 +20,6 @@ import com.albertsilva.cursomc.domain.Produto;
  * </p>
  */
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
+public interface ProdutoRepository extends JpaRepository<Produto, Integer>, ProdutoLookupRepository {
 
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.albertsilva.cursomc.dto.categoria.request.CategoriaInsertRequest;
@@ -81,12 +82,25 @@ public class CategoriaResource {
   /**
    * Busca uma categoria pelo identificador.
    *
-   * @param id identificador da categoria
-   * @return categoria correspondente
+   * <p>
+   * Suporta requisição condicional: o ETag é a versão da categoria, lida
+   * junto com a resposta em cache, e, se coincidir com
+   * {@code If-None-Match}, a resposta é 304. Com a categoria em cache,
+   * nenhuma das duas respostas consulta o banco.
+   * </p>
+   *
+   * @param id      identificador da categoria
+   * @param request requisição atual, usada na verificação do ETag
+   * @return categoria correspondente, ou 304 Not Modified
    */
   @GetMapping("/{id}")
-  public ResponseEntity<CategoriaResponse> findById(@PathVariable Integer id) {
-    return ResponseEntity.ok().body(categoriaService.findById(id));
+  public ResponseEntity<CategoriaResponse> findById(@PathVariable Integer id, WebRequest request) {
+    CategoriaResponse response = categoriaService.findById(id);
+    String eTag = String.valueOf(response.version());
+    if (request.checkNotModified(eTag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(eTag).body(response);
   }
 
   /**
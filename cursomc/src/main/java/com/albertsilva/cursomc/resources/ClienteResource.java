@@ -7,13 +7,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.albertsilva.cursomc.config.RequestPriority;
+import com.albertsilva.cursomc.config.RequestPriority.Level;
+import com.albertsilva.cursomc.dto.pagination.CursorPageResponse;
+import com.albertsilva.cursomc.dto.pagination.KeysetCursor;
 import com.albertsilva.cursomc.dto.cliente.request.ClienteInsertRequest;
 import com.albertsilva.cursomc.dto.cliente.request.ClienteUpdateRequest;
 import com.albertsilva.cursomc.dto.cliente.response.ClienteResponse;
 import com.albertsilva.cursomc.services.ClienteService;
+import com.albertsilva.cursomc.services.IdempotencyService;
 
 /**
  * Controller REST responsável pelos endpoints do recurso Cliente.
@@ -33,26 +39,38 @@ import com.albertsilva.cursomc.services.ClienteService;
 public class ClienteResource {
 
   private final ClienteService clienteService;
+  private final IdempotencyService idempotencyService;
 
   /**
    * Construtor com injeção de dependência.
    */
-  public ClienteResource(ClienteService clienteService) {
+  public ClienteResource(ClienteService clienteService, IdempotencyService idempotencyService) {
     this.clienteService = clienteService;
+    this.idempotencyService = idempotencyService;
   }
 
   /**
    * Cria um novo cliente.
    *
-   * @param dto dados para criação
+   * <p>
+   * Com o cabeçalho {@code Idempotency-Key}, repetições da requisição
+   * devolvem a resposta original sem criar outro cliente.
+   * </p>
+   *
+   * @param idempotencyKey chave opcional de idempotência
+   * @param dto            dados para criação
    * @return 201 Created com URI do novo recurso
    */
   @PostMapping
-  public ResponseEntity<ClienteResponse> insert(@RequestBody ClienteInsertRequest dto) {
-    ClienteResponse response = clienteService.insert(dto);
-    URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-        .buildAndExpand(response.id()).toUri();
-    return ResponseEntity.created(uri).body(response);
+  public ResponseEntity<ClienteResponse> insert(
+      @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+      @RequestBody ClienteInsertRequest dto) {
+    return idempotencyService.execute("cliente", idempotencyKey, dto, ClienteResponse.class, () -> {
+      ClienteResponse response = clienteService.insert(dto);
+      URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+          .buildAndExpand(response.id()).toUri();
+      return ResponseEntity.created(uri).body(response);
+    });
   }
 
   /**
@@ -61,18 +79,50 @@ public class ClienteResource {
    * @param pageable parâmetros de paginação (default: 20 por página, ordenado por
    *                 nome)
    */
+  @RequestPriority(Level.BULK)
   @GetMapping
   public ResponseEntity<Page<ClienteResponse>> findAllPaged(
       @PageableDefault(size = 20, sort = "nome") Pageable pageable) {
     return ResponseEntity.ok(clienteService.findAllPaged(pageable));
   }
 
+  /**
+   * Retorna listagem de clientes por cursor (keyset pagination).
+   *
+   * <p>
+   * Selecionado pela presença do parâmetro {@code cursor}: envie-o vazio
+   * para a primeira página e, nas seguintes, o {@code nextCursor} da
+   * resposta anterior. A ordenação é fixa por ({@code nome}, {@code id}).
+   * </p>
+   *
+   * @param cursor cursor opaco da página anterior
+   * @param size   tamanho da página (padrão 20, máximo
+   *               {@value KeysetCursor#MAX_PAGE_SIZE})
+   */
+  @RequestPriority(Level.BULK)
+  @GetMapping(params = "cursor")
+  public ResponseEntity<CursorPageResponse<ClienteResponse>> findAllByCursor(
+      @RequestParam(defaultValue = "") String cursor, @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(clienteService.findAllByCursor(cursor, KeysetCursor.checkPageSize(size)));
+  }
+
   /**
    * Busca cliente por ID.
+   *
+   * <p>
+   * Responde 304 Not Modified, consultando apenas a versão do cliente,
+   * quando o {@code If-None-Match} coincide com o ETag atual. Na resposta
+   * 200, o ETag é a versão lida junto com o corpo.
+   * </p>
    */
   @GetMapping(value = "/{id}")
-  public ResponseEntity<ClienteResponse> findById(@PathVariable Integer id) {
-    return ResponseEntity.ok().body(clienteService.findById(id));
+  public ResponseEntity<ClienteResponse> findById(@PathVariable Integer id, WebRequest request) {
+    String eTag = clienteService.findVersion(id);
+    if (request.checkNotModified(eTag)) {
+      return null;
+    }
+    ClienteResponse response = clienteService.findById(id);
+    return ResponseEntity.ok().eTag(String.valueOf(response.version())).body(response);
   }
 
   /**
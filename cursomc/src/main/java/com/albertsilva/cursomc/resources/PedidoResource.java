@@ -1,18 +1,35 @@
 package com.albertsilva.cursomc.resources;
 
 import java.net.URI;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.albertsilva.cursomc.config.RequestPriority;
+import com.albertsilva.cursomc.config.RequestPriority.Level;
+import com.albertsilva.cursomc.dto.pagination.CursorPageResponse;
+import com.albertsilva.cursomc.dto.pagination.KeysetCursor;
 import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.EncodedPedidoResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoIntakeResponse;
 import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
 import com.albertsilva.cursomc.dto.pedido.update.PedidoUpdateRequest;
+import com.albertsilva.cursomc.services.IdempotencyService;
+import com.albertsilva.cursomc.services.PedidoBatchService;
+import com.albertsilva.cursomc.services.PedidoGroupCommitter;
+import com.albertsilva.cursomc.services.PedidoIntakeService;
+import com.albertsilva.cursomc.services.PedidoResponseCache;
 import com.albertsilva.cursomc.services.PedidoService;
 
 import jakarta.validation.Valid;
@@ -36,45 +53,213 @@ import jakarta.validation.Valid;
 public class PedidoResource {
 
   private final PedidoService pedidoService;
+  private final PedidoBatchService pedidoBatchService;
+  private final PedidoResponseCache pedidoResponseCache;
+  private final PedidoIntakeService pedidoIntakeService;
+  private final IdempotencyService idempotencyService;
+  private final PedidoGroupCommitter pedidoGroupCommitter;
+  private final boolean groupCommit;
 
   /**
    * Construtor com injeção de dependência.
    */
-  public PedidoResource(PedidoService pedidoService) {
+  public PedidoResource(PedidoService pedidoService, PedidoBatchService pedidoBatchService,
+      PedidoResponseCache pedidoResponseCache, PedidoIntakeService pedidoIntakeService,
+      IdempotencyService idempotencyService, PedidoGroupCommitter pedidoGroupCommitter,
+      @Value("${cursomc.pedido.group-commit.enabled:false}") boolean groupCommit) {
     this.pedidoService = pedidoService;
+    this.pedidoBatchService = pedidoBatchService;
+    this.pedidoResponseCache = pedidoResponseCache;
+    this.pedidoIntakeService = pedidoIntakeService;
+    this.idempotencyService = idempotencyService;
+    this.pedidoGroupCommitter = pedidoGroupCommitter;
+    this.groupCommit = groupCommit;
   }
 
   /**
    * Cria um novo pedido.
    *
-   * @param dto dados para criação do pedido
+   * <p>
+   * Com o cabeçalho {@code Idempotency-Key}, novas tentativas do cliente
+   * ou do gateway devolvem o pedido já criado em vez de duplicá-lo;
+   * tentativas simultâneas aguardam a primeira execução.
+   * </p>
+   *
+   * <p>
+   * Com {@code cursomc.pedido.group-commit.enabled}, o pedido é gravado
+   * junto com os demais recebidos no mesmo instante, em uma única
+   * transação ({@link PedidoGroupCommitter}); a resposta e os erros são os
+   * mesmos, e se a fila estiver cheia ou o grupo não for confirmado a
+   * tempo a resposta é 503. Como
+   * essa transação é de outra thread, a resposta idempotente é registrada
+   * à parte ({@link IdempotencyService#executeWithoutTransaction}).
+   * </p>
+   *
+   * @param idempotencyKey chave opcional de idempotência
+   * @param dto            dados para criação do pedido
    * @return 201 Created com URI do novo recurso
    */
+  @RequestPriority(Level.CRITICAL)
   @PostMapping
-  public ResponseEntity<PedidoResponse> insert(@RequestBody PedidoInsertRequest dto) {
-    PedidoResponse response = pedidoService.insert(dto);
+  public ResponseEntity<PedidoResponse> insert(
+      @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+      @RequestBody PedidoInsertRequest dto) {
+    if (groupCommit) {
+      return idempotencyService.executeWithoutTransaction("pedido", idempotencyKey, dto, PedidoResponse.class,
+          () -> created(pedidoGroupCommitter.insert(dto)));
+    }
+    return idempotencyService.execute("pedido", idempotencyKey, dto, PedidoResponse.class,
+        () -> created(pedidoService.insert(dto)));
+  }
+
+  /**
+   * Monta a resposta 201 com a URI do pedido criado.
+   */
+  private static ResponseEntity<PedidoResponse> created(PedidoResponse response) {
     URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
         .buildAndExpand(response.id()).toUri();
     return ResponseEntity.created(uri).body(response);
   }
 
+  /**
+   * Cria pedidos em lote.
+   *
+   * <p>
+   * Os pedidos são gravados em blocos transacionais; cada pedido é
+   * reportado individualmente e a falha de um não impede os demais.
+   * </p>
+   *
+   * @param dtos pedidos a serem criados
+   * @return 200 OK com o resultado de cada pedido, na ordem de envio
+   */
+  @RequestPriority(Level.BULK)
+  @PostMapping("/batch")
+  public ResponseEntity<PedidoBatchResponse> insertBatch(@RequestBody List<PedidoInsertRequest> dtos) {
+    return ResponseEntity.ok(pedidoBatchService.insertAll(dtos));
+  }
+
+  /**
+   * Recebe um pedido para gravação assíncrona.
+   *
+   * <p>
+   * O pedido é validado e gravado em uma fila durável; a gravação do
+   * agregado ocorre depois, nos workers de fila. A situação pode ser
+   * acompanhada pela URI retornada em {@code Location}.
+   * </p>
+   *
+   * @param dto dados para criação do pedido
+   * @return 202 Accepted com a situação inicial do recebimento
+   */
+  @RequestPriority(Level.CRITICAL)
+  @PostMapping("/async")
+  public ResponseEntity<PedidoIntakeResponse> insertAsync(@RequestBody PedidoInsertRequest dto) {
+    PedidoIntakeResponse response = pedidoIntakeService.enqueue(dto);
+    URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/pedidos/intake/{id}")
+        .buildAndExpand(response.id()).toUri();
+    return ResponseEntity.accepted().location(uri).body(response);
+  }
+
+  /**
+   * Retorna a situação de um pedido recebido de forma assíncrona.
+   *
+   * @param id identificador do recebimento
+   * @return situação e, se concluído, o id do pedido gravado
+   */
+  @GetMapping("/intake/{id}")
+  public ResponseEntity<PedidoIntakeResponse> findIntakeById(@PathVariable Long id) {
+    return ResponseEntity.ok(pedidoIntakeService.findById(id));
+  }
+
   /**
    * Retorna listagem paginada de pedidos.
    *
    * @param pageable paginação padrão (20 por página, ordenado por instante)
    */
+  @RequestPriority(Level.BULK)
   @GetMapping
   public ResponseEntity<Page<PedidoResponse>> findAllPaged(
       @PageableDefault(size = 20, sort = "instante") Pageable pageable) {
     return ResponseEntity.ok(pedidoService.findAllPaged(pageable));
   }
 
+  /**
+   * Retorna listagem de pedidos por cursor (keyset pagination).
+   *
+   * <p>
+   * Selecionado pela presença do parâmetro {@code cursor}: envie-o vazio
+   * para a primeira página e, nas seguintes, o {@code nextCursor} da
+   * resposta anterior. A ordenação é fixa por ({@code instante}, {@code id}).
+   * </p>
+   *
+   * @param cursor cursor opaco da página anterior
+   * @param size   tamanho da página (padrão 20, máximo
+   *               {@value KeysetCursor#MAX_PAGE_SIZE})
+   */
+  @RequestPriority(Level.BULK)
+  @GetMapping(params = "cursor")
+  public ResponseEntity<CursorPageResponse<PedidoResponse>> findAllByCursor(
+      @RequestParam(defaultValue = "") String cursor, @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(pedidoService.findAllByCursor(cursor, KeysetCursor.checkPageSize(size)));
+  }
+
   /**
    * Busca pedido por ID.
+   *
+   * <p>
+   * Pensado para consultas frequentes de status: o ETag combina as versões
+   * do pedido e do cliente e, se coincidir com {@code If-None-Match}, a
+   * resposta é 304 sem carregar o pedido nem serializar o JSON.
+   * </p>
+   *
+   * <p>
+   * Pedidos liquidados são servidos de {@link PedidoResponseCache}: os
+   * bytes pré-serializados (em gzip, se o cliente aceitar) são escritos
+   * diretamente na resposta.
+   * </p>
+   *
+   * <p>
+   * Quando o pedido precisa ser carregado, o ETag devolvido é a versão lida
+   * junto com o corpo, e não a consultada no início: uma carga
+   * compartilhada pode ser anterior a uma alteração recém confirmada.
+   * </p>
    */
   @GetMapping("/{id}")
-  public ResponseEntity<PedidoResponse> findById(@PathVariable Integer id) {
-    return ResponseEntity.ok(pedidoService.findById(id));
+  public ResponseEntity<?> findById(@PathVariable Integer id, WebRequest request) {
+    String eTag = pedidoService.findVersion(id);
+    if (request.checkNotModified(eTag)) {
+      return null;
+    }
+
+    EncodedPedidoResponse encoded = pedidoResponseCache.get(id, eTag);
+    if (encoded == null) {
+      PedidoResponse response = pedidoService.findById(id);
+      encoded = pedidoResponseCache.putIfSettled(response);
+      if (encoded == null) {
+        return ResponseEntity.ok().eTag(response.version()).body(response);
+      }
+    }
+
+    return encoded(encoded, request);
+  }
+
+  /**
+   * Monta a resposta a partir dos bytes pré-serializados, escolhendo a
+   * versão compactada quando o cliente aceita gzip.
+   */
+  private static ResponseEntity<byte[]> encoded(EncodedPedidoResponse encoded, WebRequest request) {
+
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .eTag(encoded.version())
+        .contentType(MediaType.APPLICATION_JSON)
+        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+    if (gzip) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+    }
+    return builder.body(encoded.json());
   }
 
   /**
@@ -8,14 +8,19 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.albertsilva.cursomc.services.exceptions.BusinessException;
+import com.albertsilva.cursomc.services.exceptions.RateLimitExceededException;
+import com.albertsilva.cursomc.services.exceptions.ServiceOverloadedException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -67,6 +72,59 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    /**
+     * Trata requisições recusadas por sobrecarga.
+     *
+     * <p>
+     * Retorna 503 com o cabeçalho {@code Retry-After}, indicando ao
+     * cliente quando tentar novamente.
+     * </p>
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ProblemDetail> handleServiceOverloaded(ServiceOverloadedException ex,
+            HttpServletRequest request) {
+
+        HttpStatusCode status = HttpStatusCode.valueOf(ex.getStatus());
+
+        logger.warn("Request shed on path {}: {}", request.getRequestURI(), ex.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problem.setTitle(resolveTitle(status.value()));
+
+        enrich(problem, request);
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
+    /**
+     * Trata requisições recusadas pelo limite de taxa do cliente.
+     *
+     * <p>
+     * Retorna 429 com o cabeçalho {@code Retry-After}. Os cabeçalhos
+     * {@code RateLimit-*} já foram definidos pelo filtro que recusou a
+     * requisição.
+     * </p>
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimitExceeded(RateLimitExceededException ex,
+            HttpServletRequest request) {
+
+        HttpStatusCode status = HttpStatusCode.valueOf(ex.getStatus());
+
+        logger.debug("Rate limit exceeded on path {}: {}", request.getRequestURI(), ex.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problem.setTitle(resolveTitle(status.value()));
+
+        enrich(problem, request);
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
     /*
      * ======================================================
      * BEAN VALIDATION (DTO Validation)
@@ -139,6 +197,40 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    /*
+     * ======================================================
+     * CONCURRENCY (OPTIMISTIC LOCKING)
+     * ======================================================
+     */
+
+    /**
+     * Trata conflitos de versão detectados pelo bloqueio otimista.
+     *
+     * <p>
+     * Ocorre quando outra requisição alterou o mesmo agregado entre a
+     * leitura e a gravação. Nada é gravado; o cliente deve recarregar o
+     * recurso e repetir a alteração.
+     * </p>
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLocking(OptimisticLockingFailureException ex,
+            HttpServletRequest request) {
+
+        HttpStatusCode status = HttpStatusCode.valueOf(409);
+
+        logger.warn("Concurrent modification on path {}: {}", request.getRequestURI(), ex.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                status,
+                "The resource was modified by another request. Reload it and try again.");
+
+        problem.setTitle(resolveTitle(status.value()));
+
+        enrich(problem, request);
+
+        return problem;
+    }
+
     /*
      * ======================================================
      * GENERIC / UNEXPECTED ERRORS
@@ -210,6 +302,8 @@ public class GlobalExceptionHandler {
             case 404 -> "Resource not found";
             case 409 -> "Conflict";
             case 422 -> "Unprocessable content";
+            case 429 -> "Too many requests";
+            case 503 -> "Service unavailable";
             default -> "Application error";
         };
     }
@@ -1,5 +1,8 @@
 package com.albertsilva.cursomc.services;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,10 +33,38 @@ import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
  * A entidade {@link Categoria} é tratada como Aggregate Root no contexto
  * do domínio, sendo manipulada exclusivamente através deste serviço.
  * </p>
+ *
+ * <p>
+ * As consultas são servidas por um cache de respostas em memória
+ * ({@value #CACHE_CATEGORIAS} e {@value #CACHE_PAGINAS}). Toda escrita
+ * invalida as páginas em cache e, quando altera uma categoria existente,
+ * também a entrada dessa categoria. Leituras concorrentes de uma mesma
+ * chave ausente são coalescidas ({@code sync = true}): apenas uma consulta
+ * o banco e as demais aguardam o mesmo resultado.
+ * </p>
+ *
+ * <p>
+ * Cada {@link CategoriaResponse} em cache carrega a versão lida junto com
+ * os dados, de modo que o ETag sai da mesma leitura que gerou o corpo.
+ * A remoção ocorre após o commit (ver {@code CacheConfig}); uma carga
+ * iniciada antes do commit ainda está dentro do cálculo da entrada no
+ * Caffeine, e a remoção aguarda esse cálculo terminar antes de descartar
+ * o valor, que portanto não sobrevive à alteração.
+ * </p>
  */
 @Service
 public class CategoriaService {
 
+  /**
+   * Cache de {@link CategoriaResponse} por identificador.
+   */
+  public static final String CACHE_CATEGORIAS = "categorias";
+
+  /**
+   * Cache de páginas de {@link CategoriaResponse} por {@link Pageable}.
+   */
+  public static final String CACHE_PAGINAS = "categorias-paginas";
+
   private final CategoriaRepository categoriaRepository;
   private final CategoriaMapper categoriaMapper;
 
@@ -54,6 +85,7 @@ public class CategoriaService {
    * @param dto dados de entrada
    * @return representação da categoria persistida
    */
+  @CacheEvict(cacheNames = CACHE_PAGINAS, allEntries = true)
   @Transactional
   public CategoriaResponse insert(CategoriaInsertRequest dto) {
     Categoria categoria = categoriaMapper.fromInsertRequest(dto);
@@ -67,6 +99,7 @@ public class CategoriaService {
    * @param pageable parâmetros de paginação e ordenação
    * @return página de categorias
    */
+  @Cacheable(cacheNames = CACHE_PAGINAS, sync = true)
   @Transactional(readOnly = true)
   public Page<CategoriaResponse> findAllPaged(Pageable pageable) {
     return categoriaRepository.findAll(pageable).map(categoriaMapper::toResponse);
@@ -79,6 +112,7 @@ public class CategoriaService {
    * @return categoria encontrada
    * @throws ObjectNotFoundException caso não exista
    */
+  @Cacheable(cacheNames = CACHE_CATEGORIAS, sync = true)
   @Transactional(readOnly = true)
   public CategoriaResponse findById(Integer id) {
     Categoria categoria = findEntityById(id);
@@ -92,10 +126,14 @@ public class CategoriaService {
    * @param dto novos dados
    * @return categoria atualizada
    */
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CACHE_CATEGORIAS, key = "#id"),
+      @CacheEvict(cacheNames = CACHE_PAGINAS, allEntries = true) })
   @Transactional
   public CategoriaResponse update(Integer id, CategoriaInsertRequest dto) {
     Categoria categoria = findEntityById(id);
     categoriaMapper.updateEntityFromRequest(dto, categoria);
+    categoriaRepository.flush();
     return categoriaMapper.toResponse(categoria);
   }
 
@@ -104,6 +142,9 @@ public class CategoriaService {
    *
    * @param id identificador da categoria
    */
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CACHE_CATEGORIAS, key = "#id"),
+      @CacheEvict(cacheNames = CACHE_PAGINAS, allEntries = true) })
   @Transactional
   public void delete(Integer id) {
     Categoria obj = findEntityById(id);
@@ -1,9 +1,18 @@
 package com.albertsilva.cursomc.services;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.albertsilva.cursomc.domain.Cidade;
 import com.albertsilva.cursomc.domain.Cliente;
@@ -11,8 +20,11 @@ import com.albertsilva.cursomc.dto.cliente.mapper.ClienteMapper;
 import com.albertsilva.cursomc.dto.cliente.request.ClienteInsertRequest;
 import com.albertsilva.cursomc.dto.cliente.request.ClienteUpdateRequest;
 import com.albertsilva.cursomc.dto.cliente.response.ClienteResponse;
+import com.albertsilva.cursomc.dto.pagination.CursorPageResponse;
+import com.albertsilva.cursomc.dto.pagination.KeysetCursor;
 import com.albertsilva.cursomc.repositories.CidadeRepository;
 import com.albertsilva.cursomc.repositories.ClienteRepository;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
 import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
 
 /**
@@ -43,22 +55,34 @@ public class ClienteService {
 
   private final ClienteRepository clienteRepository;
   private final CidadeRepository cidadeRepository;
+  private final LocalidadeService localidadeService;
   private final ClienteMapper clienteMapper;
+  private final SingleFlight<Integer, ClienteResponse> singleFlight;
+  private final TransactionTemplate readOnlyTransaction;
 
   /**
    * Construtor com injeção de dependências via construtor.
    *
-   * @param clienteRepository repositório responsável pela persistência de
-   *                          clientes
-   * @param cidadeRepository  repositório responsável pela persistência de cidades
-   * @param clienteMapper     componente responsável pela conversão entre entidade
-   *                          e DTO
+   * @param clienteRepository  repositório responsável pela persistência de
+   *                           clientes
+   * @param cidadeRepository   repositório responsável pela persistência de
+   *                           cidades
+   * @param localidadeService  retrato em memória das cidades
+   * @param clienteMapper      componente responsável pela conversão entre
+   *                           entidade e DTO
+   * @param singleFlight       coalescência das leituras concorrentes por id
+   * @param transactionManager gerenciador da transação de leitura por id
    */
   public ClienteService(ClienteRepository clienteRepository, CidadeRepository cidadeRepository,
-      ClienteMapper clienteMapper) {
+      LocalidadeService localidadeService, ClienteMapper clienteMapper,
+      SingleFlight<Integer, ClienteResponse> singleFlight, PlatformTransactionManager transactionManager) {
     this.clienteRepository = clienteRepository;
     this.cidadeRepository = cidadeRepository;
+    this.localidadeService = localidadeService;
     this.clienteMapper = clienteMapper;
+    this.singleFlight = singleFlight;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
   /**
@@ -68,6 +92,7 @@ public class ClienteService {
    * O método:
    * </p>
    * <ol>
+   * <li>Valida a cidade no retrato em memória de {@link LocalidadeService}</li>
    * <li>Obtém uma referência da entidade {@link Cidade}</li>
    * <li>Cria a entidade {@link Cliente} a partir do DTO</li>
    * <li>Persiste o agregado</li>
@@ -75,18 +100,19 @@ public class ClienteService {
    * </ol>
    *
    * <p>
-   * Utiliza {@code getReferenceById} para evitar consulta imediata ao banco,
-   * delegando a verificação de integridade à camada de persistência.
+   * A cidade é validada antes da montagem do agregado e sem acesso ao
+   * banco; por isso {@code getReferenceById} pode ser usado com segurança,
+   * sem carregar a entidade.
    * </p>
    *
    * @param dto dados necessários para criação do cliente
    * @return {@link ClienteResponse} representando o cliente persistido
+   * @throws ObjectNotFoundException caso a cidade não exista
    */
   @Transactional
   public ClienteResponse insert(ClienteInsertRequest dto) {
 
-    // Cidade cidade = cidadeRepository.findById(dto.cidadeId())
-    // .orElseThrow(() -> new EntityNotFoundException("Cidade não encontrada"));
+    localidadeService.checkCidade(dto.cidadeId());
     Cidade cidade = cidadeRepository.getReferenceById(dto.cidadeId());
 
     Cliente cliente = clienteMapper.fromInsertRequest(dto, cidade);
@@ -99,24 +125,95 @@ public class ClienteService {
   /**
    * Retorna uma lista paginada de clientes.
    *
+   * <p>
+   * A paginação é feita no banco sobre os identificadores; em seguida,
+   * endereços e telefones dos clientes da página são carregados em
+   * consultas em lote. Memória e latência dependem apenas do tamanho
+   * da página, e não do tamanho da tabela.
+   * </p>
+   *
    * @param pageable parâmetros de paginação e ordenação
    * @return página contendo {@link ClienteResponse}
    */
   @Transactional(readOnly = true)
   public Page<ClienteResponse> findAllPaged(Pageable pageable) {
-    return clienteRepository.findAll(pageable).map(clienteMapper::toResponse);
+
+    Page<Integer> ids = clienteRepository.findIdsPaged(pageable);
+
+    return new PageImpl<>(loadResponses(ids.getContent()), pageable, ids.getTotalElements());
+  }
+
+  /**
+   * Retorna uma página de clientes por paginação por chave (keyset).
+   *
+   * <p>
+   * Os clientes são ordenados por ({@code nome}, {@code id}). O cursor
+   * informado identifica o último cliente da página anterior e a consulta
+   * busca diretamente a partir dele, sem OFFSET.
+   * </p>
+   *
+   * @param cursor cursor opaco da página anterior, ou vazio para a primeira
+   *               página
+   * @param size   tamanho da página
+   * @return página contendo {@link ClienteResponse} e o cursor da próxima
+   *         página
+   * @throws InvalidRequestException se o cursor for inválido
+   */
+  @Transactional(readOnly = true)
+  public CursorPageResponse<ClienteResponse> findAllByCursor(String cursor, int size) {
+
+    Limit limit = Limit.of(size + 1);
+
+    List<Integer> ids;
+    if (cursor == null || cursor.isBlank()) {
+      ids = clienteRepository.findFirstIdsByNome(limit);
+    } else {
+      KeysetCursor keyset = KeysetCursor.decode(cursor);
+      ids = clienteRepository.findIdsAfter(keyset.sortValue(), keyset.id(), limit);
+    }
+
+    boolean hasNext = ids.size() > size;
+    List<ClienteResponse> content = loadResponses(hasNext ? ids.subList(0, size) : ids);
+
+    String nextCursor = null;
+    if (hasNext) {
+      ClienteResponse last = content.get(content.size() - 1);
+      nextCursor = new KeysetCursor(last.nome(), last.id()).encode();
+    }
+
+    return new CursorPageResponse<>(content, size, nextCursor);
   }
 
   /**
    * Busca um cliente pelo identificador.
    *
+   * <p>
+   * Leituras simultâneas do mesmo cliente compartilham uma única carga
+   * ({@link SingleFlight}), executada em transação somente leitura.
+   * </p>
+   *
    * @param id identificador do cliente
    * @return representação do cliente encontrado
    * @throws ObjectNotFoundException caso o cliente não exista
    */
-  @Transactional(readOnly = true)
   public ClienteResponse findById(Integer id) {
-    return clienteMapper.toResponse(findEntityById(id));
+    return singleFlight.load(id,
+        () -> readOnlyTransaction.execute(status -> clienteMapper.toResponse(findEntityById(id))));
+  }
+
+  /**
+   * Retorna a versão atual do cliente, usada como ETag do recurso.
+   *
+   * @param id identificador do cliente
+   * @return versão do cliente
+   *
+   * @throws ObjectNotFoundException caso o cliente não seja encontrado
+   */
+  @Transactional(readOnly = true)
+  public String findVersion(Integer id) {
+    return clienteRepository.findVersionById(id)
+        .map(String::valueOf)
+        .orElseThrow(() -> new ObjectNotFoundException("Cliente não encontrado! Id: " + id));
   }
 
   /**
@@ -137,6 +234,8 @@ public class ClienteService {
   public ClienteResponse update(Integer id, ClienteUpdateRequest dto) {
     Cliente cliente = findEntityById(id);
     cliente.updateFrom(dto);
+    clienteRepository.flush();
+    singleFlight.forgetAfterCommit(id);
     return clienteMapper.toResponse(cliente);
   }
 
@@ -150,6 +249,32 @@ public class ClienteService {
   public void delete(Integer id) {
     Cliente cliente = findEntityById(id);
     clienteRepository.delete(cliente);
+    singleFlight.forgetAfterCommit(id);
+  }
+
+  /**
+   * Carrega os clientes informados com endereços e telefones em consultas
+   * em lote e os converte para {@link ClienteResponse}, preservando a
+   * ordem dos identificadores.
+   *
+   * @param ids identificadores já ordenados
+   * @return respostas na mesma ordem dos identificadores
+   */
+  private List<ClienteResponse> loadResponses(List<Integer> ids) {
+
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Integer, Cliente> clientes = clienteRepository.findAllWithEnderecosByIdIn(ids)
+        .stream()
+        .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+
+    clienteRepository.findAllWithTelefonesByIdIn(ids);
+
+    return ids.stream()
+        .map(id -> clienteMapper.toResponse(clientes.get(id)))
+        .toList();
   }
 
   /**
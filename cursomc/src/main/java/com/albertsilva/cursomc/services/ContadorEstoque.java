@@ -0,0 +1,151 @@
+package com.albertsilva.cursomc.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador do estoque disponível de um produto, dividido em faixas
+ * atômicas independentes.
+ *
+ * <p>
+ * Um único contador atômico por produto faria todas as reservas de um
+ * produto muito vendido disputarem a mesma linha de cache. Aqui o estoque
+ * é repartido entre faixas ({@link AtomicLongArray}, espaçadas para que
+ * cada uma ocupe sua própria linha de cache) e cada reserva começa por
+ * uma faixa aleatória, de modo que reservas simultâneas raramente
+ * disputam o mesmo valor.
+ * </p>
+ *
+ * <p>
+ * Nenhuma faixa fica negativa: a reserva só subtrai de uma faixa, por
+ * compare-and-set, quantidades que ela possui. Quando nenhuma faixa sozinha
+ * comporta a reserva, as quantidades são reunidas de várias faixas e
+ * devolvidas se o total não for atingido. Durante essa reunião, outras
+ * reservas podem falhar mesmo com estoque suficiente no total, mas nunca
+ * o contrário: o contador pode recusar uma venda possível, nunca aceitar
+ * uma venda acima do estoque.
+ * </p>
+ *
+ * <p>
+ * O contador guarda apenas valores em memória; a gravação das variações
+ * cabe a {@link EstoqueService}.
+ * </p>
+ */
+final class ContadorEstoque {
+
+  /**
+   * Espaçamento entre faixas, em posições de {@code long}: 16 × 8 bytes
+   * cobrem duas linhas de cache de 64 bytes.
+   */
+  private static final int ESPACAMENTO = 16;
+
+  private final int faixas;
+  private final AtomicLongArray valores;
+
+  /**
+   * Cria o contador repartindo a quantidade inicial entre as faixas.
+   *
+   * @param faixas     número de faixas
+   * @param quantidade estoque disponível inicial
+   */
+  ContadorEstoque(int faixas, long quantidade) {
+    this.faixas = faixas;
+    this.valores = new AtomicLongArray(faixas * ESPACAMENTO);
+    for (int i = 0; i < faixas; i++) {
+      valores.set(i * ESPACAMENTO, quantidade / faixas + (i < quantidade % faixas ? 1 : 0));
+    }
+  }
+
+  /**
+   * Reserva a quantidade, se disponível.
+   *
+   * @param quantidade quantidade a reservar, maior que zero
+   * @return {@code true} se a quantidade foi reservada por inteiro;
+   *         {@code false} se não havia estoque, e nada foi reservado
+   */
+  boolean reservar(long quantidade) {
+
+    int inicio = ThreadLocalRandom.current().nextInt(faixas);
+
+    for (int k = 0; k < faixas; k++) {
+      int posicao = posicao(inicio + k);
+      long atual;
+      while ((atual = valores.get(posicao)) >= quantidade) {
+        if (valores.compareAndSet(posicao, atual, atual - quantidade)) {
+          return true;
+        }
+      }
+    }
+
+    return reunir(quantidade, inicio);
+  }
+
+  /**
+   * Devolve ao estoque uma quantidade reservada anteriormente.
+   *
+   * @param quantidade quantidade liberada
+   */
+  void liberar(long quantidade) {
+    valores.getAndAdd(posicao(ThreadLocalRandom.current().nextInt(faixas)), quantidade);
+  }
+
+  /**
+   * Acrescenta ao estoque uma quantidade recebida (nova cota).
+   *
+   * @param quantidade quantidade acrescentada
+   */
+  void repor(long quantidade) {
+    valores.getAndAdd(posicao(ThreadLocalRandom.current().nextInt(faixas)), quantidade);
+  }
+
+  /**
+   * Retorna o estoque disponível no momento.
+   *
+   * <p>
+   * A soma das faixas não é instantânea; sob reservas simultâneas o valor
+   * é apenas indicativo.
+   * </p>
+   *
+   * @return soma das faixas
+   */
+  long disponivel() {
+    long total = 0;
+    for (int i = 0; i < faixas; i++) {
+      total += valores.get(posicao(i));
+    }
+    return total;
+  }
+
+  /**
+   * Reúne a quantidade de várias faixas; se o total não for atingido,
+   * devolve o que foi retirado.
+   */
+  private boolean reunir(long quantidade, int inicio) {
+
+    long obtido = 0;
+
+    for (int k = 0; k < faixas && obtido < quantidade; k++) {
+      int posicao = posicao(inicio + k);
+      long atual;
+      while (obtido < quantidade && (atual = valores.get(posicao)) > 0) {
+        long parte = Math.min(atual, quantidade - obtido);
+        if (valores.compareAndSet(posicao, atual, atual - parte)) {
+          obtido += parte;
+        }
+      }
+    }
+
+    if (obtido == quantidade) {
+      return true;
+    }
+
+    if (obtido > 0) {
+      valores.getAndAdd(posicao(inicio), obtido);
+    }
+    return false;
+  }
+
+  private int posicao(int faixa) {
+    return (faixa % faixas) * ESPACAMENTO;
+  }
+}
@@ -0,0 +1,653 @@
+package com.albertsilva.cursomc.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.domain.ItemPedido;
+import com.albertsilva.cursomc.domain.Pedido;
+import com.albertsilva.cursomc.domain.Produto;
+import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
+import com.albertsilva.cursomc.services.exceptions.EstoqueInsuficienteException;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+
+/**
+ * Serviço de reserva de estoque de {@link Produto}.
+ *
+ * <p>
+ * O estoque disponível de cada produto controlado é mantido em memória em
+ * um {@link ContadorEstoque}, e as reservas dos pedidos são feitas por
+ * operações atômicas sobre ele, sem bloquear a linha do produto no banco.
+ * Assim, pedidos simultâneos de um mesmo produto não são serializados por
+ * um {@code SELECT ... FOR UPDATE}, e ainda assim nenhum pedido é aceito
+ * acima do estoque.
+ * </p>
+ *
+ * <p>
+ * O contador de cada instância só contém a sua cota
+ * ({@code estoque_cota}), retirada em blocos de
+ * {@code cursomc.estoque.lease-block} unidades da tabela {@code estoque},
+ * que guarda o saldo não distribuído. Como a retirada é condicionada ao
+ * saldo, várias instâncias podem gravar pedidos sem vender a mesma
+ * unidade, e o bloqueio da linha ocorre apenas a cada bloco, e não a cada
+ * pedido.
+ * </p>
+ *
+ * <p>
+ * A retirada é feita antes da demanda: a consolidação periódica retira um
+ * novo bloco para cada produto com movimentos desde a execução anterior
+ * cujo contador esteja abaixo de meio bloco; produtos sem procura nesta
+ * instância não retêm saldo que outra instância poderia vender. Só quando uma
+ * reserva ainda assim não cabe na cota a retirada ocorre durante o pedido,
+ * na própria transação dele — sem uma segunda conexão — e sob um bloqueio
+ * do produto, que não afeta as reservas dos demais produtos. Nesse caso a
+ * reserva é atendida pelo bloco, que só chega ao contador após o commit.
+ * </p>
+ *
+ * <p>
+ * Ciclo de vida das quantidades:
+ * </p>
+ * <ul>
+ * <li>Reservas são feitas antes da gravação do pedido e desfeitas se a
+ * transação for revertida;</li>
+ * <li>Liberações (cancelamento, exclusão ou redução de itens) só são
+ * aplicadas ao contador após o commit, para que uma reversão não precise
+ * retomar quantidades que outro pedido já reservou;</li>
+ * <li>Cada reserva ou liberação grava um movimento
+ * ({@code estoque_movimento}) na transação do pedido;</li>
+ * <li>Os movimentos são consolidados na cota em lotes periódicos
+ * ({@code cursomc.estoque.flush-interval});</li>
+ * <li>Na inicialização, o contador é reconstruído a partir da cota e dos
+ * movimentos ainda não consolidados; uma queda abrupta não perde nenhuma
+ * variação confirmada;</li>
+ * <li>No encerramento, a cota não usada volta ao saldo da tabela
+ * {@code estoque}.</li>
+ * </ul>
+ *
+ * <p>
+ * Produtos sem linha na tabela {@code estoque} não têm o estoque
+ * controlado e são sempre aceitos. A cota de uma instância que não volta
+ * a ser iniciada com o mesmo {@code cursomc.estoque.instance} permanece
+ * reservada a ela até ser devolvida manualmente.
+ * </p>
+ */
+@Service
+public class EstoqueService {
+
+  private static final Logger logger = LoggerFactory.getLogger(EstoqueService.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int faixas;
+  private final String instancia;
+  private final long blocoCota;
+
+  /**
+   * Protege a carga preguiçosa dos contadores, sem fixar threads virtuais.
+   */
+  private final ReentrantLock cargaLock = new ReentrantLock();
+
+  /**
+   * Impede consolidações simultâneas (agendada e de encerramento).
+   */
+  private final ReentrantLock gravacaoLock = new ReentrantLock();
+
+  /**
+   * Bloqueio por produto das retiradas de cota desta instância, para que
+   * threads sem estoque local não retirem vários blocos do mesmo produto
+   * ao mesmo tempo.
+   */
+  private final Map<Integer, ReentrantLock> cotaLocks = new ConcurrentHashMap<>();
+
+  private volatile Map<Integer, ContadorEstoque> contadores;
+
+  /**
+   * Interrompe as retiradas antecipadas depois que a cota é devolvida no
+   * encerramento.
+   */
+  private volatile boolean encerrando;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate       acesso JDBC às tabelas de estoque
+   * @param transactionManager gerenciador das transações de consolidação e
+   *                           de retirada antecipada de cota
+   * @param faixas             número de faixas de cada contador
+   * @param instancia          identificador desta instância, dono da cota
+   * @param blocoCota          quantidade mínima retirada do saldo por vez
+   */
+  public EstoqueService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${cursomc.estoque.stripes:8}") int faixas,
+      @Value("${cursomc.estoque.instance:local}") String instancia,
+      @Value("${cursomc.estoque.lease-block:50}") long blocoCota) {
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.faixas = faixas;
+    this.instancia = instancia;
+    this.blocoCota = blocoCota;
+  }
+
+  /**
+   * Recupera os contadores das tabelas na inicialização.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void recover() {
+    current();
+  }
+
+  /**
+   * Reserva as quantidades informadas, todas ou nenhuma.
+   *
+   * <p>
+   * Os movimentos são gravados na transação corrente, e a reserva é
+   * desfeita automaticamente se ela não for confirmada. Os produtos são
+   * percorridos em ordem de id, para que pedidos que retiram cota de vários
+   * produtos bloqueiem as linhas sempre na mesma ordem.
+   * </p>
+   *
+   * @param quantidades quantidades por identificador de produto
+   * @throws EstoqueInsuficienteException se algum produto controlado não
+   *                                      tiver estoque suficiente
+   */
+  public void reservar(Map<Integer, Integer> quantidades) {
+
+    Map<Integer, ContadorEstoque> atuais = current();
+    Map<Integer, Integer> reservadas = new LinkedHashMap<>();
+    Map<Integer, Parcela> parcelas = new HashMap<>();
+
+    for (Map.Entry<Integer, Integer> entry : new TreeMap<>(quantidades).entrySet()) {
+
+      ContadorEstoque contador = atuais.get(entry.getKey());
+      if (contador == null) {
+        continue;
+      }
+
+      Parcela parcela = reservar(entry.getKey(), contador, entry.getValue());
+      if (parcela == null) {
+        desfazer(atuais, parcelas);
+        throw new EstoqueInsuficienteException("Estoque insuficiente! Produto: " + entry.getKey()
+            + ", solicitado: " + entry.getValue() + ", disponível: " + contador.disponivel());
+      }
+      reservadas.put(entry.getKey(), entry.getValue());
+      parcelas.put(entry.getKey(), parcela);
+    }
+
+    if (reservadas.isEmpty()) {
+      return;
+    }
+
+    try {
+      registrarMovimentos(reservadas, -1);
+    } catch (RuntimeException e) {
+      desfazer(atuais, parcelas);
+      throw e;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            parcelas.forEach((produtoId, parcela) -> atuais.get(produtoId).liberar(parcela.doContador()));
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Libera as quantidades informadas: os movimentos são gravados na
+   * transação corrente, e o contador é acrescido após o commit (ou
+   * imediatamente, fora de uma transação).
+   *
+   * @param quantidades quantidades por identificador de produto
+   */
+  public void liberar(Map<Integer, Integer> quantidades) {
+
+    Map<Integer, ContadorEstoque> atuais = current();
+    Map<Integer, Integer> controladas = new LinkedHashMap<>();
+    quantidades.forEach((produtoId, quantidade) -> {
+      if (atuais.containsKey(produtoId)) {
+        controladas.put(produtoId, quantidade);
+      }
+    });
+
+    if (!controladas.isEmpty()) {
+      registrarMovimentos(controladas, 1);
+      afterCommit(() -> controladas.forEach((produtoId, quantidade) -> atuais.get(produtoId).liberar(quantidade)));
+    }
+  }
+
+  /**
+   * Ajusta as reservas de um pedido alterado: reserva os acréscimos e
+   * libera as reduções entre as quantidades anteriores e as novas.
+   *
+   * @param antes  quantidades reservadas antes da alteração
+   * @param depois quantidades reservadas após a alteração
+   * @throws EstoqueInsuficienteException se algum acréscimo não puder ser
+   *                                      reservado
+   */
+  public void ajustar(Map<Integer, Integer> antes, Map<Integer, Integer> depois) {
+
+    Map<Integer, Integer> acrescimos = new HashMap<>();
+    Map<Integer, Integer> reducoes = new HashMap<>();
+
+    depois.forEach((produtoId, quantidade) -> {
+      int diferenca = quantidade - antes.getOrDefault(produtoId, 0);
+      if (diferenca > 0) {
+        acrescimos.put(produtoId, diferenca);
+      } else if (diferenca < 0) {
+        reducoes.put(produtoId, -diferenca);
+      }
+    });
+    antes.forEach((produtoId, quantidade) -> {
+      if (!depois.containsKey(produtoId)) {
+        reducoes.put(produtoId, quantidade);
+      }
+    });
+
+    reservar(acrescimos);
+    liberar(reducoes);
+  }
+
+  /**
+   * Retorna as quantidades que o pedido mantém reservadas: as de seus
+   * itens, ou nenhuma se o pagamento estiver cancelado.
+   *
+   * @param pedido pedido com itens e pagamento
+   * @return quantidades por identificador de produto
+   */
+  public Map<Integer, Integer> reservadasPor(Pedido pedido) {
+
+    if (pedido.getPagamento() != null && pedido.getPagamento().getEstado() == EstadoPagamento.CANCELADO) {
+      return Map.of();
+    }
+
+    return pedido.getItens().stream()
+        .collect(Collectors.toMap(item -> item.getProduto().getId(), ItemPedido::getQuantidade, Integer::sum));
+  }
+
+  /**
+   * Retorna o estoque disponível do produto para esta instância: sua cota
+   * local somada ao saldo ainda não distribuído.
+   *
+   * @param produtoId identificador do produto
+   * @return quantidade disponível, ou vazio se o produto não tiver o
+   *         estoque controlado
+   */
+  public OptionalLong findDisponivel(Integer produtoId) {
+    ContadorEstoque contador = current().get(produtoId);
+    if (contador == null) {
+      return OptionalLong.empty();
+    }
+    long saldo = jdbcTemplate.queryForList("select quantidade from estoque where produto_id = ?", Long.class, produtoId)
+        .stream()
+        .findFirst()
+        .orElse(0L);
+    return OptionalLong.of(contador.disponivel() + saldo);
+  }
+
+  /**
+   * Acrescenta quantidade ao saldo do produto, passando a controlá-lo se
+   * ainda não for controlado.
+   *
+   * <p>
+   * A quantidade é gravada imediatamente no saldo da tabela {@code estoque}
+   * e chega aos contadores das instâncias pelas retiradas de cota.
+   * </p>
+   *
+   * @param produtoId  identificador do produto
+   * @param quantidade quantidade recebida
+   * @throws InvalidRequestException se a quantidade não for positiva
+   */
+  @Transactional
+  public void repor(Integer produtoId, int quantidade) {
+
+    if (quantidade <= 0) {
+      throw new InvalidRequestException("Quantidade deve ser maior que zero.");
+    }
+
+    Timestamp agora = Timestamp.from(Instant.now());
+    int atualizadas = jdbcTemplate.update(
+        "update estoque set quantidade = quantidade + ?, atualizado_em = ? where produto_id = ?",
+        quantidade, agora, produtoId);
+    if (atualizadas == 0) {
+      jdbcTemplate.update("insert into estoque (produto_id, quantidade, atualizado_em) values (?, ?, ?)",
+          produtoId, quantidade, agora);
+    }
+
+    afterCommit(() -> current().computeIfAbsent(produtoId, id -> new ContadorEstoque(faixas, 0)));
+  }
+
+  /**
+   * Consolida na cota desta instância, em uma única transação, os
+   * movimentos gravados desde a última execução, e retira um novo bloco
+   * para os produtos movimentados cujo contador esteja abaixo de meio
+   * bloco.
+   *
+   * <p>
+   * Em caso de falha, os movimentos permanecem na tabela para a próxima
+   * execução.
+   * </p>
+   */
+  @Scheduled(fixedDelayString = "${cursomc.estoque.flush-interval:1000}")
+  public void flush() {
+
+    if (contadores == null) {
+      return;
+    }
+
+    gravacaoLock.lock();
+    try {
+      Set<Integer> movimentados = transactionTemplate.execute(status -> consolidar());
+      if (!encerrando && movimentados != null) {
+        reabastecer(movimentados);
+      }
+    } catch (DataAccessException e) {
+      logger.error("Falha ao consolidar os movimentos de estoque; nova tentativa na próxima execução", e);
+    } finally {
+      gravacaoLock.unlock();
+    }
+  }
+
+  /**
+   * Devolve a cota no encerramento da aplicação e interrompe as retiradas
+   * antecipadas.
+   */
+  @EventListener(ContextClosedEvent.class)
+  public void onContextClosed() {
+    encerrando = true;
+    devolverCotas();
+  }
+
+  /**
+   * Consolida os movimentos pendentes e devolve ao saldo da tabela
+   * {@code estoque} a cota desta instância.
+   */
+  public void devolverCotas() {
+
+    if (contadores == null) {
+      return;
+    }
+
+    gravacaoLock.lock();
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        consolidar();
+        jdbcTemplate.update("""
+            update estoque e
+               set quantidade = quantidade + (select c.quantidade from estoque_cota c
+                                               where c.instancia = ? and c.produto_id = e.produto_id),
+                   atualizado_em = ?
+             where exists (select 1 from estoque_cota c where c.instancia = ? and c.produto_id = e.produto_id)
+            """, instancia, Timestamp.from(Instant.now()), instancia);
+        jdbcTemplate.update("delete from estoque_cota where instancia = ?", instancia);
+      });
+      contadores = load();
+      logger.debug("Cota de estoque da instância {} devolvida", instancia);
+    } catch (DataAccessException e) {
+      logger.error("Falha ao devolver a cota de estoque da instância {}", instancia, e);
+    } finally {
+      gravacaoLock.unlock();
+    }
+  }
+
+  /**
+   * Reserva no contador e, se a cota não comportar a quantidade, retira um
+   * novo bloco na transação corrente.
+   *
+   * @return origem das unidades reservadas, ou {@code null} se nem o saldo
+   *         comportar a quantidade
+   */
+  private Parcela reservar(Integer produtoId, ContadorEstoque contador, int quantidade) {
+
+    if (contador.reservar(quantidade)) {
+      return new Parcela(quantidade, 0);
+    }
+
+    ReentrantLock lock = cotaLock(produtoId);
+    lock.lock();
+    try {
+      if (contador.reservar(quantidade)) {
+        return new Parcela(quantidade, 0);
+      }
+
+      long bloco = retirarDoSaldo(produtoId, Math.max(quantidade, blocoCota));
+      long doBloco = Math.min(bloco, quantidade);
+      long doContador = quantidade - doBloco;
+      boolean reservada = doContador == 0 || contador.reservar(doContador);
+
+      long sobra = reservada ? bloco - doBloco : bloco;
+      if (sobra > 0) {
+        afterCommit(() -> contador.repor(sobra));
+      }
+      return reservada ? new Parcela(doContador, doBloco) : null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Desfaz as reservas de um pedido recusado: a parte do contador volta
+   * imediatamente; a parte retirada de um bloco só existe se a retirada for
+   * confirmada, e volta após o commit.
+   */
+  private void desfazer(Map<Integer, ContadorEstoque> atuais, Map<Integer, Parcela> parcelas) {
+    parcelas.forEach((produtoId, parcela) -> {
+      ContadorEstoque contador = atuais.get(produtoId);
+      contador.liberar(parcela.doContador());
+      if (parcela.doBloco() > 0) {
+        afterCommit(() -> contador.liberar(parcela.doBloco()));
+      }
+    });
+  }
+
+  /**
+   * Retira um novo bloco, em transação própria, para cada produto informado
+   * cujo contador esteja abaixo de meio bloco.
+   *
+   * @param produtos produtos movimentados desde a consolidação anterior
+   */
+  private void reabastecer(Set<Integer> produtos) {
+
+    Map<Integer, ContadorEstoque> atuais = contadores;
+
+    for (Integer produtoId : produtos) {
+      ContadorEstoque contador = atuais.get(produtoId);
+      if (contador == null || contador.disponivel() * 2 >= blocoCota) {
+        continue;
+      }
+
+      ReentrantLock lock = cotaLock(produtoId);
+      lock.lock();
+      try {
+        Long bloco = transactionTemplate.execute(status -> retirarDoSaldo(produtoId, blocoCota));
+        if (bloco != null && bloco > 0) {
+          contador.repor(bloco);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Transfere do saldo da tabela {@code estoque} para a cota desta
+   * instância até {@code desejado} unidades, na transação corrente.
+   *
+   * @return unidades transferidas
+   */
+  private long retirarDoSaldo(Integer produtoId, long desejado) {
+
+    long saldo = jdbcTemplate.queryForList(
+        "select quantidade from estoque where produto_id = ? for update", Long.class, produtoId)
+        .stream()
+        .findFirst()
+        .orElse(0L);
+    long bloco = Math.min(saldo, desejado);
+    if (bloco > 0) {
+      Timestamp agora = Timestamp.from(Instant.now());
+      jdbcTemplate.update("update estoque set quantidade = quantidade - ?, atualizado_em = ? where produto_id = ?",
+          bloco, agora, produtoId);
+      somarCota(produtoId, bloco, agora);
+      logger.debug("Cota de {} unidades do produto {} retirada pela instância {}", bloco, produtoId, instancia);
+    }
+    return bloco;
+  }
+
+  private ReentrantLock cotaLock(Integer produtoId) {
+    return cotaLocks.computeIfAbsent(produtoId, id -> new ReentrantLock());
+  }
+
+  /**
+   * Grava um movimento por produto, com o sinal informado.
+   */
+  private void registrarMovimentos(Map<Integer, Integer> quantidades, int sinal) {
+    Timestamp agora = Timestamp.from(Instant.now());
+    jdbcTemplate.batchUpdate(
+        "insert into estoque_movimento (instancia, produto_id, variacao, criado_em) values (?, ?, ?, ?)",
+        quantidades.entrySet().stream()
+            .map(entry -> new Object[] { instancia, entry.getKey(), (long) sinal * entry.getValue(), agora })
+            .toList());
+  }
+
+  /**
+   * Soma à cota desta instância os movimentos já confirmados e os remove.
+   *
+   * <p>
+   * Os movimentos são removidos pelo id lido: um movimento de transação
+   * ainda não confirmada não é lido nem removido, e entra na execução
+   * seguinte. Deve ser executado dentro de uma transação.
+   * </p>
+   *
+   * @return produtos movimentados
+   */
+  private Set<Integer> consolidar() {
+
+    Map<Integer, Long> variacoes = new HashMap<>();
+    List<Object[]> ids = new ArrayList<>();
+
+    jdbcTemplate.query("select id, produto_id, variacao from estoque_movimento where instancia = ? order by id",
+        rs -> {
+          ids.add(new Object[] { rs.getLong(1) });
+          variacoes.merge(rs.getInt(2), rs.getLong(3), Long::sum);
+        }, instancia);
+
+    if (ids.isEmpty()) {
+      return Set.of();
+    }
+
+    Timestamp agora = Timestamp.from(Instant.now());
+    variacoes.forEach((produtoId, variacao) -> somarCota(produtoId, variacao, agora));
+    jdbcTemplate.batchUpdate("delete from estoque_movimento where id = ?", ids);
+
+    logger.debug("Estoque consolidado: {} movimentos de {} produtos", ids.size(), variacoes.size());
+    return variacoes.keySet();
+  }
+
+  private void somarCota(Integer produtoId, long variacao, Timestamp agora) {
+    int atualizadas = jdbcTemplate.update(
+        "update estoque_cota set quantidade = quantidade + ?, atualizado_em = ? where instancia = ? and produto_id = ?",
+        variacao, agora, instancia, produtoId);
+    if (atualizadas == 0) {
+      jdbcTemplate.update(
+          "insert into estoque_cota (instancia, produto_id, quantidade, atualizado_em) values (?, ?, ?, ?)",
+          instancia, produtoId, variacao, agora);
+    }
+  }
+
+  /**
+   * Retorna os contadores, carregando-os das tabelas se ainda não tiverem
+   * sido carregados (acesso anterior ao fim da inicialização).
+   */
+  private Map<Integer, ContadorEstoque> current() {
+    Map<Integer, ContadorEstoque> atuais = contadores;
+    if (atuais == null) {
+      cargaLock.lock();
+      try {
+        if (contadores == null) {
+          contadores = load();
+        }
+        atuais = contadores;
+      } finally {
+        cargaLock.unlock();
+      }
+    }
+    return atuais;
+  }
+
+  /**
+   * Reconstrói o contador de cada produto controlado a partir da cota desta
+   * instância e dos movimentos ainda não consolidados.
+   */
+  private Map<Integer, ContadorEstoque> load() {
+
+    Map<Integer, ContadorEstoque> carregados = new ConcurrentHashMap<>();
+
+    jdbcTemplate.query("""
+        select e.produto_id,
+               coalesce((select c.quantidade from estoque_cota c
+                          where c.instancia = ? and c.produto_id = e.produto_id), 0)
+             + coalesce((select sum(m.variacao) from estoque_movimento m
+                          where m.instancia = ? and m.produto_id = e.produto_id), 0)
+          from estoque e
+        """,
+        rs -> {
+          carregados.put(rs.getInt(1), new ContadorEstoque(faixas, rs.getLong(2)));
+        }, instancia, instancia);
+
+    logger.debug("Estoque recuperado: {} produtos controlados", carregados.size());
+
+    return carregados;
+  }
+
+  /**
+   * Unidades de uma reserva tiradas do contador e de um bloco retirado na
+   * própria transação do pedido.
+   */
+  private record Parcela(long doContador, long doBloco) {
+  }
+
+  private static void afterCommit(Runnable acao) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          acao.run();
+        }
+      });
+    } else {
+      acao.run();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.albertsilva.cursomc.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * {@link OutboxSink} que acrescenta os eventos a um arquivo local, um
+ * objeto JSON por linha.
+ *
+ * <p>
+ * Cada lote é gravado e sincronizado com o disco ({@code force}) antes de
+ * retornar, para que as linhas só saiam do outbox depois de duráveis no
+ * arquivo. O arquivo é indicado por {@code cursomc.outbox.file.path}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "cursomc.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+  private final Path arquivo;
+  private final JsonMapper jsonMapper;
+
+  /**
+   * Serializa as gravações de relays concorrentes, sem fixar threads
+   * virtuais.
+   */
+  private final ReentrantLock gravacaoLock = new ReentrantLock();
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param arquivo    caminho do arquivo de eventos
+   * @param jsonMapper serialização dos eventos
+   */
+  public FileOutboxSink(@Value("${cursomc.outbox.file.path:outbox-eventos.jsonl}") Path arquivo,
+      JsonMapper jsonMapper) {
+    this.arquivo = arquivo;
+    this.jsonMapper = jsonMapper;
+  }
+
+  @Override
+  public void publish(List<OutboxEvento> eventos) throws IOException {
+
+    StringBuilder linhas = new StringBuilder();
+    for (OutboxEvento evento : eventos) {
+      linhas.append(jsonMapper.writeValueAsString(evento)).append('\n');
+    }
+    ByteBuffer conteudo = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+
+    gravacaoLock.lock();
+    try {
+      Path diretorio = arquivo.toAbsolutePath().getParent();
+      if (diretorio != null) {
+        Files.createDirectories(diretorio);
+      }
+      try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.APPEND)) {
+        while (conteudo.hasRemaining()) {
+          canal.write(conteudo);
+        }
+        canal.force(false);
+      }
+    } finally {
+      gravacaoLock.unlock();
+    }
+  }
+}
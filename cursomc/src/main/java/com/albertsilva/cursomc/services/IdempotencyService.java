@@ -0,0 +1,353 @@
+package com.albertsilva.cursomc.services;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.services.exceptions.IdempotencyKeyMismatchException;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+import com.albertsilva.cursomc.services.exceptions.RequestInProgressException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serviço que garante a execução única de requisições de criação
+ * identificadas pelo cabeçalho {@value #HEADER}.
+ *
+ * <p>
+ * A primeira requisição com uma chave executa a operação e registra a
+ * resposta (status, {@code Location} e corpo JSON) na tabela
+ * {@code idempotency_key} e em um índice em memória limitado. Repetições
+ * da mesma chave, dentro de {@code cursomc.idempotency.ttl}, recebem a
+ * resposta registrada sem executar a operação novamente, com o cabeçalho
+ * {@value #REPLAYED_HEADER}.
+ * </p>
+ *
+ * <p>
+ * Tratamento de concorrência:
+ * </p>
+ * <ul>
+ * <li>Duplicatas simultâneas na mesma instância aguardam a primeira
+ * execução ({@link SingleFlight}) e recebem sua resposta;</li>
+ * <li>Entre instâncias, a chave é reservada por uma linha inserida antes da
+ * execução; a outra instância responde 409 até que a resposta seja
+ * registrada;</li>
+ * <li>Se a operação falhar, a reserva é removida e a chave pode ser
+ * reutilizada.</li>
+ * </ul>
+ *
+ * <p>
+ * A operação e o registro da resposta são executados na mesma transação:
+ * se a instância parar entre os dois, a operação também é desfeita e a
+ * reserva sem resposta é descartada após
+ * {@code cursomc.idempotency.lock-timeout}. A exceção é
+ * {@link #executeWithoutTransaction}, usado quando a operação grava em
+ * outra thread (group commit de pedidos).
+ * </p>
+ *
+ * <p>
+ * Uma chave reenviada com outro corpo resulta em 422.
+ * </p>
+ */
+@Service
+public class IdempotencyService {
+
+  /**
+   * Cabeçalho da requisição que identifica a operação.
+   */
+  public static final String HEADER = "Idempotency-Key";
+
+  /**
+   * Cabeçalho adicionado às respostas repetidas a partir do registro.
+   */
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+  private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JsonMapper jsonMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final Cache<String, StoredResponse> index;
+  private final SingleFlight<String, StoredResponse> inFlight;
+  private final Duration ttl;
+  private final Duration lockTimeout;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate       acesso JDBC à tabela {@code idempotency_key}
+   * @param jsonMapper         serializador das respostas registradas
+   * @param transactionManager gerenciador da transação que envolve a
+   *                           operação e o registro da resposta
+   * @param registry           registro de métricas
+   * @param ttl                tempo de validade de uma chave
+   * @param maxEntries         tamanho máximo do índice em memória
+   * @param lockTimeout        tempo após o qual uma reserva sem resposta é
+   *                           considerada abandonada
+   */
+  public IdempotencyService(
+      JdbcTemplate jdbcTemplate,
+      JsonMapper jsonMapper,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${cursomc.idempotency.ttl:24h}") Duration ttl,
+      @Value("${cursomc.idempotency.max-entries:10000}") long maxEntries,
+      @Value("${cursomc.idempotency.lock-timeout:1m}") Duration lockTimeout) {
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.jsonMapper = jsonMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.ttl = ttl;
+    this.lockTimeout = lockTimeout;
+    this.index = Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .expireAfterWrite(ttl)
+        .build();
+    this.inFlight = new SingleFlight<>("idempotency", Duration.ZERO, registry);
+  }
+
+  /**
+   * Executa a operação uma única vez por chave, na mesma transação que
+   * registra sua resposta.
+   *
+   * @param <T>      tipo do corpo da resposta
+   * @param escopo   operação protegida (por exemplo, {@code "pedido"})
+   * @param chave    valor de {@value #HEADER}; se ausente, a operação é
+   *                 executada normalmente
+   * @param request  corpo da requisição, usado para detectar reutilização
+   *                 da chave com outro conteúdo
+   * @param tipo     classe do corpo da resposta
+   * @param operacao operação a ser executada
+   * @return resposta da operação, executada agora ou registrada
+   *         anteriormente
+   *
+   * @throws IdempotencyKeyMismatchException se a chave já foi usada com
+   *                                         outro corpo
+   * @throws RequestInProgressException      se outra instância ainda
+   *                                         processa a mesma chave
+   */
+  public <T> ResponseEntity<T> execute(String escopo, String chave, Object request, Class<T> tipo,
+      Supplier<ResponseEntity<T>> operacao) {
+    return execute(escopo, chave, request, tipo, operacao, true);
+  }
+
+  /**
+   * Executa a operação uma única vez por chave, registrando a resposta em
+   * uma transação separada.
+   *
+   * <p>
+   * Para operações que gravam em outra thread e não podem participar da
+   * transação da requisição. Se a instância parar depois da gravação e
+   * antes do registro, a reserva é descartada após
+   * {@code cursomc.idempotency.lock-timeout} e uma repetição da chave
+   * executa a operação outra vez; o lock-timeout deve, portanto, exceder o
+   * tempo máximo de uma requisição, para que uma execução ainda em
+   * andamento nunca perca a reserva.
+   * </p>
+   *
+   * @see #execute(String, String, Object, Class, Supplier)
+   */
+  public <T> ResponseEntity<T> executeWithoutTransaction(String escopo, String chave, Object request,
+      Class<T> tipo, Supplier<ResponseEntity<T>> operacao) {
+    return execute(escopo, chave, request, tipo, operacao, false);
+  }
+
+  private <T> ResponseEntity<T> execute(String escopo, String chave, Object request, Class<T> tipo,
+      Supplier<ResponseEntity<T>> operacao, boolean transacional) {
+
+    if (chave == null || chave.isBlank()) {
+      return operacao.get();
+    }
+
+    if (chave.length() > TAMANHO_MAXIMO_CHAVE) {
+      throw new InvalidRequestException(HEADER + " deve ter no máximo " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+    }
+
+    String id = escopo + ":" + chave;
+    String hash = hash(request);
+
+    @SuppressWarnings("unchecked")
+    ResponseEntity<T>[] executada = new ResponseEntity[1];
+
+    StoredResponse stored = index.getIfPresent(id);
+    if (stored == null) {
+      stored = inFlight.load(id, () -> findOrRun(id, escopo, chave, hash, resposta -> executada[0] = resposta,
+          operacao, transacional));
+    }
+
+    if (!stored.requestHash().equals(hash)) {
+      throw new IdempotencyKeyMismatchException(HEADER + " já utilizada com outro conteúdo de requisição.");
+    }
+
+    if (executada[0] != null) {
+      return executada[0];
+    }
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+    if (stored.location() != null) {
+      builder.location(URI.create(stored.location()));
+    }
+    return builder.body(stored.body() == null ? null : jsonMapper.readValue(stored.body(), tipo));
+  }
+
+  /**
+   * Remove da tabela as chaves expiradas.
+   */
+  @Scheduled(fixedDelayString = "${cursomc.idempotency.purge-interval:3600000}")
+  public void purgeExpired() {
+    int removidas = jdbcTemplate.update("delete from idempotency_key where expira_em < ?",
+        Timestamp.from(Instant.now()));
+    if (removidas > 0) {
+      logger.debug("{} chaves de idempotência expiradas removidas", removidas);
+    }
+  }
+
+  /**
+   * Retorna a resposta registrada na tabela ou, se não houver, reserva a
+   * chave, executa a operação e registra a resposta.
+   *
+   * <p>
+   * A reserva é confirmada antes da operação, para que outras instâncias a
+   * vejam; a operação e o registro da resposta compartilham a transação
+   * seguinte, quando {@code transacional}.
+   * </p>
+   */
+  private <T> StoredResponse findOrRun(String id, String escopo, String chave, String hash,
+      Consumer<ResponseEntity<T>> executada, Supplier<ResponseEntity<T>> operacao, boolean transacional) {
+
+    StoredResponse registrada = findStored(escopo, chave);
+    if (registrada != null) {
+      index.put(id, registrada);
+      return registrada;
+    }
+
+    reserve(escopo, chave, hash);
+
+    StoredResponse[] stored = new StoredResponse[1];
+    Supplier<ResponseEntity<T>> registrar = () -> {
+      ResponseEntity<T> resposta = operacao.get();
+      stored[0] = record(escopo, chave, hash, resposta);
+      return resposta;
+    };
+
+    ResponseEntity<T> resposta;
+    try {
+      resposta = transacional ? transactionTemplate.execute(status -> registrar.get()) : registrar.get();
+    } catch (RuntimeException | Error e) {
+      jdbcTemplate.update("delete from idempotency_key where escopo = ? and chave = ?", escopo, chave);
+      throw e;
+    }
+
+    index.put(id, stored[0]);
+    executada.accept(resposta);
+    return stored[0];
+  }
+
+  /**
+   * Grava a resposta na linha reservada da chave.
+   */
+  private StoredResponse record(String escopo, String chave, String hash, ResponseEntity<?> resposta) {
+
+    URI location = resposta.getHeaders().getLocation();
+    StoredResponse stored = new StoredResponse(hash, resposta.getStatusCode().value(),
+        location == null ? null : location.toString(),
+        resposta.getBody() == null ? null : jsonMapper.writeValueAsString(resposta.getBody()));
+
+    jdbcTemplate.update("update idempotency_key set status_code = ?, location = ?, body = ? where escopo = ? and chave = ?",
+        stored.status(), stored.location(), stored.body(), escopo, chave);
+
+    return stored;
+  }
+
+  /**
+   * Busca a resposta registrada e ainda válida da chave.
+   *
+   * @throws IdempotencyKeyMismatchException se a chave já foi usada com
+   *                                         outro corpo
+   * @throws RequestInProgressException      se a chave está reservada por
+   *                                         outra instância
+   */
+  private StoredResponse findStored(String escopo, String chave) {
+    return jdbcTemplate.query(
+        "select request_hash, status_code, location, body from idempotency_key"
+            + " where escopo = ? and chave = ? and expira_em >= ?",
+        (rs, n) -> new StoredResponse(rs.getString(1), (Integer) rs.getObject(2), rs.getString(3), rs.getString(4)),
+        escopo, chave, Timestamp.from(Instant.now()))
+        .stream()
+        .filter(StoredResponse::isComplete)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Reserva a chave inserindo sua linha antes da execução; reservas
+   * expiradas ou abandonadas são descartadas antes.
+   */
+  private void reserve(String escopo, String chave, String hash) {
+
+    Instant agora = Instant.now();
+
+    jdbcTemplate.update("delete from idempotency_key where escopo = ? and chave = ?"
+        + " and (expira_em < ? or (status_code is null and criado_em < ?))",
+        escopo, chave, Timestamp.from(agora), Timestamp.from(agora.minus(lockTimeout)));
+
+    try {
+      jdbcTemplate.update("insert into idempotency_key (escopo, chave, request_hash, criado_em, expira_em)"
+          + " values (?, ?, ?, ?, ?)",
+          escopo, chave, hash, Timestamp.from(agora), Timestamp.from(agora.plus(ttl)));
+    } catch (DuplicateKeyException e) {
+      String hashRegistrado = jdbcTemplate.queryForObject(
+          "select request_hash from idempotency_key where escopo = ? and chave = ?", String.class, escopo, chave);
+      if (!hash.equals(hashRegistrado)) {
+        throw new IdempotencyKeyMismatchException(HEADER + " já utilizada com outro conteúdo de requisição.");
+      }
+      throw new RequestInProgressException("Requisição com a mesma " + HEADER + " em processamento.");
+    }
+  }
+
+  private String hash(Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(jsonMapper.writeValueAsBytes(request)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Resposta registrada para uma chave.
+   *
+   * @param requestHash SHA-256 do corpo da requisição original
+   * @param status      status HTTP, ou {@code null} enquanto reservada
+   * @param location    cabeçalho {@code Location}, se houver
+   * @param body        corpo JSON, se houver
+   */
+  private record StoredResponse(String requestHash, Integer status, String location, String body) {
+
+    private boolean isComplete() {
+      return status != null;
+    }
+  }
+}
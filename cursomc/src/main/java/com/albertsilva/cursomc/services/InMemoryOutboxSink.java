@@ -0,0 +1,69 @@
+package com.albertsilva.cursomc.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link OutboxSink} que mantém os eventos em uma fila em memória, para
+ * execução local e testes.
+ *
+ * <p>
+ * A fila é limitada por {@code cursomc.outbox.memory.capacity}. Um lote
+ * que não caiba inteiro é recusado e permanece no outbox até que
+ * {@link #drain()} abra espaço.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "cursomc.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+  private final BlockingQueue<OutboxEvento> fila;
+
+  /**
+   * Garante que a verificação de espaço e a inserção de um lote não se
+   * intercalem com outro lote.
+   */
+  private final ReentrantLock publicacaoLock = new ReentrantLock();
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param capacidade quantidade máxima de eventos na fila
+   */
+  public InMemoryOutboxSink(@Value("${cursomc.outbox.memory.capacity:10000}") int capacidade) {
+    this.fila = new ArrayBlockingQueue<>(capacidade);
+  }
+
+  @Override
+  public void publish(List<OutboxEvento> eventos) throws IOException {
+    publicacaoLock.lock();
+    try {
+      if (fila.remainingCapacity() < eventos.size()) {
+        throw new IOException("Fila de eventos cheia: " + fila.size() + " eventos não consumidos");
+      }
+      fila.addAll(eventos);
+    } finally {
+      publicacaoLock.unlock();
+    }
+  }
+
+  /**
+   * Remove e retorna os eventos publicados até o momento, em ordem de
+   * publicação.
+   *
+   * @return eventos consumidos
+   */
+  public List<OutboxEvento> drain() {
+    List<OutboxEvento> eventos = new ArrayList<>();
+    fila.drainTo(eventos);
+    return eventos;
+  }
+}
@@ -0,0 +1,157 @@
+package com.albertsilva.cursomc.services;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.albertsilva.cursomc.domain.Cidade;
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+
+/**
+ * Serviço que mantém em memória um retrato imutável dos identificadores
+ * de {@link Cidade}, usado na validação de endereços.
+ *
+ * <p>
+ * Cidades são dados de referência: poucas, raramente alteradas e
+ * consultadas a cada cadastro de cliente. Em vez de consultar o banco, os
+ * identificadores são carregados na inicialização em um vetor primitivo
+ * ordenado, e cada validação é uma busca binária sobre {@code int[]}, sem
+ * boxing nem acesso ao banco.
+ * </p>
+ *
+ * <p>
+ * O retrato cobre apenas as cidades. Estados não entram nele porque a
+ * aplicação não valida nem consulta estados em nenhum caminho de
+ * requisição; a relação estado → cidades pode ser acrescentada ao
+ * {@code Snapshot} (por exemplo, um vetor paralelo com o estado de cada
+ * cidade) quando houver quem a use.
+ * </p>
+ *
+ * <p>
+ * O retrato nunca é alterado: {@link #reload()} monta um novo retrato e o
+ * publica com uma única escrita {@code volatile}. Leitores concorrentes
+ * veem sempre o retrato anterior completo ou o novo completo, nunca um
+ * estado intermediário. A recarga também é executada periodicamente,
+ * conforme {@code cursomc.localidade.refresh-interval}.
+ * </p>
+ */
+@Service
+public class LocalidadeService {
+
+  private static final Logger logger = LoggerFactory.getLogger(LocalidadeService.class);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Protege a carga preguiçosa; {@link ReentrantLock} em vez de
+   * {@code synchronized} para não fixar threads virtuais durante a
+   * consulta.
+   */
+  private final ReentrantLock cargaLock = new ReentrantLock();
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate acesso JDBC usado na carga das tabelas
+   */
+  public LocalidadeService(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Recarrega as cidades e publica o novo retrato.
+   *
+   * <p>
+   * Deve ser chamado sempre que a tabela {@code cidade} for alterada. Em
+   * caso de falha na carga agendada, o retrato anterior continua em uso.
+   * </p>
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${cursomc.localidade.refresh-interval:600000}",
+      initialDelayString = "${cursomc.localidade.refresh-interval:600000}")
+  public void reload() {
+    try {
+      snapshot = load();
+    } catch (DataAccessException e) {
+      if (snapshot == null) {
+        throw e;
+      }
+      logger.error("Falha ao recarregar as cidades; mantendo o retrato anterior", e);
+    }
+  }
+
+  /**
+   * Indica se a cidade existe.
+   *
+   * @param cidadeId identificador da cidade
+   * @return {@code true} se a cidade existir
+   */
+  public boolean existsCidade(int cidadeId) {
+    return current().indexOfCidade(cidadeId) >= 0;
+  }
+
+  /**
+   * Valida a existência da cidade.
+   *
+   * @param cidadeId identificador da cidade
+   * @throws ObjectNotFoundException se o identificador for nulo ou a
+   *                                 cidade não existir
+   */
+  public void checkCidade(Integer cidadeId) {
+    if (cidadeId == null || !existsCidade(cidadeId)) {
+      throw new ObjectNotFoundException("Cidade não encontrada! Id: " + cidadeId);
+    }
+  }
+
+  /**
+   * Retorna o retrato atual, carregando-o se ainda não houver um (acesso
+   * anterior ao fim da inicialização).
+   */
+  private Snapshot current() {
+    Snapshot atual = snapshot;
+    if (atual == null) {
+      cargaLock.lock();
+      try {
+        if (snapshot == null) {
+          snapshot = load();
+        }
+        atual = snapshot;
+      } finally {
+        cargaLock.unlock();
+      }
+    }
+    return atual;
+  }
+
+  private Snapshot load() {
+
+    int[] cidadeIds = jdbcTemplate.queryForList("select id from cidade order by id", Integer.class).stream()
+        .mapToInt(Integer::intValue)
+        .toArray();
+
+    logger.debug("Retrato de localidades carregado: {} cidades", cidadeIds.length);
+
+    return new Snapshot(cidadeIds);
+  }
+
+  /**
+   * Retrato imutável dos identificadores da tabela {@code cidade},
+   * ordenados.
+   */
+  private record Snapshot(int[] cidadeIds) {
+
+    private int indexOfCidade(int cidadeId) {
+      return Arrays.binarySearch(cidadeIds, cidadeId);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.albertsilva.cursomc.services;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.core.retry.Retryable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Política opcional de novas tentativas para conflitos de bloqueio
+ * otimista.
+ *
+ * <p>
+ * Alterações concorrentes em um mesmo agregado (por exemplo, dois
+ * {@code PedidoService.update} do mesmo pedido) são detectadas pela
+ * coluna {@code version}: a transação que grava por último falha com
+ * {@link OptimisticLockingFailureException}, sem bloquear linhas. Nas
+ * requisições HTTP o conflito é devolvido ao cliente como 409; chamadores
+ * internos (jobs, integrações) que apenas reaplicam uma alteração podem
+ * preferir repeti-la com esta classe.
+ * </p>
+ *
+ * <p>
+ * Cada tentativa precisa abrir a sua própria transação, para reler o
+ * agregado na versão atual. Por isso a operação deve chamar um método
+ * transacional de um serviço, e não pode ser executada dentro de uma
+ * transação já ativa.
+ * </p>
+ *
+ * <p>
+ * O número de tentativas e o intervalo entre elas (com crescimento
+ * exponencial e variação aleatória, para que as transações em disputa não
+ * voltem a colidir) são configurados em {@code cursomc.optimistic-retry.*}.
+ * </p>
+ */
+@Component
+public class OptimisticLockRetry {
+
+  private final RetryTemplate retryTemplate;
+
+  /**
+   * Construtor com injeção das configurações da política.
+   *
+   * @param maxRetries número máximo de novas tentativas após a primeira
+   * @param delay      intervalo antes da primeira nova tentativa
+   * @param maxDelay   intervalo máximo entre tentativas
+   * @param jitter     variação aleatória aplicada a cada intervalo
+   * @param registry   registro de métricas
+   */
+  public OptimisticLockRetry(
+      @Value("${cursomc.optimistic-retry.max-retries:3}") long maxRetries,
+      @Value("${cursomc.optimistic-retry.delay:20ms}") Duration delay,
+      @Value("${cursomc.optimistic-retry.max-delay:500ms}") Duration maxDelay,
+      @Value("${cursomc.optimistic-retry.jitter:10ms}") Duration jitter,
+      MeterRegistry registry) {
+
+    RetryPolicy policy = RetryPolicy.builder()
+        .includes(OptimisticLockingFailureException.class)
+        .maxRetries(maxRetries)
+        .delay(delay)
+        .multiplier(2)
+        .maxDelay(maxDelay)
+        .jitter(jitter)
+        .build();
+
+    Counter retries = Counter.builder("cursomc.optimistic.retries")
+        .description("Novas tentativas após conflito de bloqueio otimista")
+        .register(registry);
+
+    this.retryTemplate = new RetryTemplate(policy);
+    this.retryTemplate.setRetryListener(new RetryListener() {
+      @Override
+      public void beforeRetry(RetryPolicy retryPolicy, Retryable<?> retryable) {
+        retries.increment();
+      }
+    });
+  }
+
+  /**
+   * Executa a operação, repetindo-a enquanto falhar por conflito de versão
+   * e houver tentativas disponíveis.
+   *
+   * @param <T>      tipo do resultado
+   * @param operacao chamada a um método transacional
+   * @return resultado da primeira tentativa bem-sucedida
+   *
+   * @throws OptimisticLockingFailureException se o conflito persistir após
+   *                                           todas as tentativas
+   * @throws IllegalStateException             se chamada dentro de uma
+   *                                           transação ativa
+   */
+  public <T> T execute(Supplier<T> operacao) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException(
+          "Novas tentativas por bloqueio otimista devem envolver a transação, e não ocorrer dentro dela");
+    }
+    return retryTemplate.invoke(operacao);
+  }
+
+}
@@ -0,0 +1,31 @@
+package com.albertsilva.cursomc.services;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * Evento lido da tabela {@code outbox_evento} para publicação.
+ *
+ * <p>
+ * A entrega é ao menos uma vez: o mesmo evento pode ser publicado de novo
+ * se a aplicação cair entre a publicação e a remoção da linha. O
+ * {@code id} é único e crescente por evento e deve ser usado pelos
+ * consumidores para descartar repetições.
+ * </p>
+ *
+ * @param id         identificador do evento
+ * @param tipo       tipo do evento (ex.: {@code PedidoCriado})
+ * @param agregado   nome do agregado de origem
+ * @param agregadoId identificador do agregado de origem
+ * @param payload    conteúdo do evento em JSON, serializado sem escape
+ * @param criadoEm   instante da gravação, na transação de origem
+ */
+public record OutboxEvento(
+    Long id,
+    String tipo,
+    String agregado,
+    String agregadoId,
+    @JsonRawValue String payload,
+    Instant criadoEm) {
+}
@@ -0,0 +1,181 @@
+package com.albertsilva.cursomc.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Relay que publica os eventos do outbox ({@code outbox_evento}) no
+ * {@link OutboxSink} configurado.
+ *
+ * <p>
+ * A cada {@code cursomc.outbox.relay.poll-interval} ms, lotes de até
+ * {@code cursomc.outbox.relay.batch-size} eventos são lidos em ordem de
+ * gravação com {@code FOR UPDATE SKIP LOCKED}, publicados e removidos na
+ * mesma transação, repetindo enquanto houver lotes cheios. Várias
+ * instâncias podem executar o relay ao mesmo tempo sem publicar o mesmo
+ * lote em paralelo; a ordem entre eventos só é garantida dentro de cada
+ * lote.
+ * </p>
+ *
+ * <p>
+ * A entrega é ao menos uma vez: se a publicação falhar, o lote permanece
+ * na tabela e é tentado de novo; se a aplicação cair depois da publicação
+ * e antes do commit, o lote é publicado outra vez.
+ * </p>
+ *
+ * <p>
+ * Métricas:
+ * </p>
+ * <ul>
+ * <li>{@code cursomc.outbox.published}: eventos publicados;</li>
+ * <li>{@code cursomc.outbox.failures}: lotes cuja publicação falhou;</li>
+ * <li>{@code cursomc.outbox.lag}: tempo entre a gravação e a publicação de
+ * cada evento;</li>
+ * <li>{@code cursomc.outbox.oldest.age}: idade do evento pendente mais
+ * antigo ao fim de cada execução.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "cursomc.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+  private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+  private static final String RESERVA_SQL = """
+      select id, tipo, agregado, agregado_id, payload, criado_em
+        from outbox_evento
+       order by id
+       limit ?
+         for update skip locked
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final OutboxSink sink;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+
+  private final Counter publicados;
+  private final Counter falhas;
+  private final Timer atraso;
+  private final AtomicLong idadeMaisAntigo = new AtomicLong();
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate       acesso JDBC à tabela do outbox
+   * @param sink               destino dos eventos
+   * @param transactionManager gerenciador da transação de cada lote
+   * @param batchSize          eventos publicados por lote
+   * @param registry           registro de métricas
+   */
+  public OutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      OutboxSink sink,
+      PlatformTransactionManager transactionManager,
+      @Value("${cursomc.outbox.relay.batch-size:100}") int batchSize,
+      MeterRegistry registry) {
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.sink = sink;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+
+    this.publicados = Counter.builder("cursomc.outbox.published")
+        .description("Eventos do outbox publicados")
+        .register(registry);
+    this.falhas = Counter.builder("cursomc.outbox.failures")
+        .description("Lotes do outbox cuja publicação falhou")
+        .register(registry);
+    this.atraso = Timer.builder("cursomc.outbox.lag")
+        .description("Tempo entre a gravação e a publicação de um evento do outbox")
+        .register(registry);
+    TimeGauge.builder("cursomc.outbox.oldest.age", idadeMaisAntigo, TimeUnit.MILLISECONDS, AtomicLong::get)
+        .description("Idade do evento pendente mais antigo do outbox")
+        .register(registry);
+  }
+
+  /**
+   * Publica lotes até esvaziar o outbox ou ocorrer uma falha.
+   */
+  @Scheduled(fixedDelayString = "${cursomc.outbox.relay.poll-interval:1000}")
+  public void relay() {
+    while (!Thread.currentThread().isInterrupted() && publishBatch() == batchSize) {
+      // continua enquanto os lotes vierem cheios
+    }
+    atualizarIdadeMaisAntigo();
+  }
+
+  /**
+   * Reserva, publica e remove um lote de eventos.
+   *
+   * @return quantidade de eventos publicados; zero se não houver eventos
+   *         ou se a publicação falhar
+   */
+  private int publishBatch() {
+    try {
+      Integer quantidade = transactionTemplate.execute(status -> {
+
+        List<OutboxEvento> eventos = jdbcTemplate.query(RESERVA_SQL, (rs, n) -> new OutboxEvento(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getTimestamp(6).toInstant()), batchSize);
+
+        if (eventos.isEmpty()) {
+          return 0;
+        }
+
+        try {
+          sink.publish(eventos);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+
+        jdbcTemplate.batchUpdate("delete from outbox_evento where id = ?",
+            eventos.stream().map(evento -> new Object[] { evento.id() }).toList());
+
+        Instant agora = Instant.now();
+        eventos.forEach(evento -> atraso.record(Duration.between(evento.criadoEm(), agora)));
+        return eventos.size();
+      });
+
+      publicados.increment(quantidade);
+      return quantidade;
+    } catch (RuntimeException e) {
+      falhas.increment();
+      logger.error("Falha ao publicar eventos do outbox; nova tentativa na próxima execução", e);
+      return 0;
+    }
+  }
+
+  private void atualizarIdadeMaisAntigo() {
+    try {
+      Timestamp maisAntigo = jdbcTemplate.queryForObject("select min(criado_em) from outbox_evento",
+          Timestamp.class);
+      idadeMaisAntigo.set(maisAntigo == null ? 0
+          : Math.max(0, Duration.between(maisAntigo.toInstant(), Instant.now()).toMillis()));
+    } catch (DataAccessException e) {
+      logger.warn("Falha ao medir o atraso do outbox: {}", e.getMessage());
+    }
+  }
+}
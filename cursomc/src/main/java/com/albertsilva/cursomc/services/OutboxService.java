@@ -0,0 +1,101 @@
+package com.albertsilva.cursomc.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serviço que grava eventos de domínio na tabela {@code outbox_evento}.
+ *
+ * <p>
+ * Os eventos são gravados na mesma transação da alteração que os origina
+ * ({@link Propagation#MANDATORY}): se a transação for revertida, o evento
+ * também é; se for confirmada, o evento será publicado. O custo na
+ * requisição é um {@code insert}; a entrega aos sistemas externos fica a
+ * cargo do {@link OutboxRelay}, fora da requisição.
+ * </p>
+ */
+@Service
+public class OutboxService {
+
+  /**
+   * Pedido gravado; conteúdo: {@code PedidoResponse}.
+   */
+  public static final String PEDIDO_CRIADO = "PedidoCriado";
+
+  /**
+   * Estado do pagamento alterado; conteúdo:
+   * {@code PagamentoEstadoAlteradoEvent}.
+   */
+  public static final String PAGAMENTO_ESTADO_ALTERADO = "PagamentoEstadoAlterado";
+
+  private static final String INSERT_SQL = """
+      insert into outbox_evento (tipo, agregado, agregado_id, payload, criado_em)
+      values (?, ?, ?, ?, ?)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JsonMapper jsonMapper;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate acesso JDBC à tabela do outbox
+   * @param jsonMapper   serialização do conteúdo dos eventos
+   */
+  public OutboxService(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * Grava um evento na transação corrente.
+   *
+   * @param tipo       tipo do evento
+   * @param agregado   nome do agregado de origem
+   * @param agregadoId identificador do agregado de origem
+   * @param payload    conteúdo do evento, serializado em JSON
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void registrar(String tipo, String agregado, Object agregadoId, Object payload) {
+    registrarTodos(List.of(new Evento(tipo, agregado, agregadoId, payload)));
+  }
+
+  /**
+   * Grava vários eventos na transação corrente, em um único lote JDBC.
+   *
+   * @param eventos eventos a gravar, na ordem de publicação
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void registrarTodos(List<Evento> eventos) {
+
+    if (eventos.isEmpty()) {
+      return;
+    }
+
+    Timestamp agora = Timestamp.from(Instant.now());
+
+    jdbcTemplate.batchUpdate(INSERT_SQL, eventos.stream()
+        .map(evento -> new Object[] { evento.tipo(), evento.agregado(), String.valueOf(evento.agregadoId()),
+            jsonMapper.writeValueAsString(evento.payload()), agora })
+        .toList());
+  }
+
+  /**
+   * Evento a ser gravado no outbox.
+   *
+   * @param tipo       tipo do evento
+   * @param agregado   nome do agregado de origem
+   * @param agregadoId identificador do agregado de origem
+   * @param payload    conteúdo do evento
+   */
+  public record Evento(String tipo, String agregado, Object agregadoId, Object payload) {
+  }
+}
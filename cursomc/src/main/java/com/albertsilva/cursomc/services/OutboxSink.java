@@ -0,0 +1,30 @@
+package com.albertsilva.cursomc.services;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino dos eventos publicados pelo {@link OutboxRelay}.
+ *
+ * <p>
+ * A implementação ativa é escolhida por {@code cursomc.outbox.sink}
+ * ({@code file} ou {@code memory}); integrações com outros destinos
+ * (broker de mensagens, webhook) implementam esta interface.
+ * </p>
+ */
+public interface OutboxSink {
+
+  /**
+   * Publica um lote de eventos, na ordem recebida.
+   *
+   * <p>
+   * Só deve retornar depois que todos os eventos estiverem entregues:
+   * ao retornar, as linhas do lote são removidas do outbox. Qualquer
+   * exceção mantém o lote inteiro para a próxima execução do relay.
+   * </p>
+   *
+   * @param eventos eventos a publicar
+   * @throws IOException se algum evento não puder ser entregue
+   */
+  void publish(List<OutboxEvento> eventos) throws IOException;
+}
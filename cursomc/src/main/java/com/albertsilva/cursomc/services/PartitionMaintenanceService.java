@@ -0,0 +1,233 @@
+package com.albertsilva.cursomc.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serviço de manutenção das partições de {@code pedido} e
+ * {@code item_pedido} no PostgreSQL (migração V25).
+ *
+ * <p>
+ * Executado periodicamente, garante que:
+ * </p>
+ * <ul>
+ * <li>Existam partições mensais de {@code pedido} para os próximos
+ * {@code months-ahead} meses, de modo que nenhum pedido novo caia na
+ * partição padrão;</li>
+ * <li>Exista a partição de {@code item_pedido} do bloco de ids em uso e a
+ * do bloco seguinte;</li>
+ * <li>Partições de {@code pedido} mais antigas que {@code retention-months}
+ * sejam desanexadas, assim como os blocos de {@code item_pedido} cujos
+ * pedidos já não estão na tabela.</li>
+ * </ul>
+ *
+ * <p>
+ * Partições desanexadas não são removidas: continuam no banco como tabelas
+ * comuns, disponíveis para arquivamento ou exclusão manual.
+ * </p>
+ *
+ * <p>
+ * {@code pagamento} e {@code item_pedido} referenciam {@code pedido} por
+ * {@code (pedido_id, pedido_instante)} (V33), e o PostgreSQL não desanexa
+ * uma partição ainda referenciada. Antes de desanexar um mês, os pagamentos
+ * (com os seus subtipos) e os itens dos pedidos daquele mês são movidos
+ * para as tabelas {@code pedido_AAAA_MM_pagamento},
+ * {@code pedido_AAAA_MM_pagamento_com_boleto},
+ * {@code pedido_AAAA_MM_pagamento_com_cartao} e
+ * {@code pedido_AAAA_MM_item_pedido}, na mesma transação da desanexação:
+ * o mês arquivado fica completo e a tabela ativa nunca fica com
+ * dependentes órfãos. Os blocos de {@code item_pedido} desanexados em
+ * seguida já estão vazios.
+ * </p>
+ *
+ * <p>
+ * Ativado apenas com {@code cursomc.partition.enabled=true}, pois depende
+ * de recursos exclusivos do PostgreSQL.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "cursomc.partition.enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+
+  /**
+   * Quantidade de ids de pedido por partição de {@code item_pedido}.
+   * Deve coincidir com o valor usado na migração V25.
+   */
+  static final int ITEM_PEDIDO_BLOCK_SIZE = 1_000_000;
+
+  private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+  private static final DateTimeFormatter SUFIXO_MES = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private static final String PARTICOES_SQL = """
+      select c.relname
+        from pg_inherits i
+        join pg_class c on c.oid = i.inhrelid
+        join pg_class p on p.oid = i.inhparent
+       where p.relname = ?
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int monthsAhead;
+  private final int retentionMonths;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate       acesso JDBC ao banco
+   * @param transactionManager gerenciador usado para mover os dependentes
+   *                           e desanexar cada mês atomicamente
+   * @param monthsAhead        meses futuros com partição garantida
+   * @param retentionMonths    meses mantidos anexados à tabela {@code pedido}
+   */
+  public PartitionMaintenanceService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${cursomc.partition.months-ahead:3}") int monthsAhead,
+      @Value("${cursomc.partition.retention-months:24}") int retentionMonths) {
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+  }
+
+  /**
+   * Cria as partições futuras e desanexa as antigas.
+   *
+   * <p>
+   * Também é executado na inicialização, para que uma aplicação parada por
+   * mais tempo que {@code months-ahead} não grave pedidos na partição
+   * padrão.
+   * </p>
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${cursomc.partition.cron:0 0 3 * * *}")
+  public void maintain() {
+    try {
+      createPedidoPartitions(YearMonth.now());
+      createItemPedidoPartitions();
+      detachOldPartitions(YearMonth.now().minusMonths(retentionMonths));
+    } catch (DataAccessException e) {
+      logger.error("Falha na manutenção das partições de pedido", e);
+    }
+  }
+
+  /**
+   * Garante as partições mensais de {@code pedido} do mês informado até
+   * {@code monthsAhead} meses à frente.
+   */
+  void createPedidoPartitions(YearMonth atual) {
+    for (int i = 0; i <= monthsAhead; i++) {
+      YearMonth mes = atual.plusMonths(i);
+      LocalDate inicio = mes.atDay(1);
+      LocalDate fim = mes.plusMonths(1).atDay(1);
+
+      jdbcTemplate.execute("create table if not exists " + pedidoPartition(mes)
+          + " partition of pedido for values from ('" + inicio + "') to ('" + fim + "')");
+    }
+  }
+
+  /**
+   * Garante a partição de {@code item_pedido} do bloco de ids atual da
+   * sequência e a do bloco seguinte.
+   */
+  void createItemPedidoPartitions() {
+    Long ultimoId = jdbcTemplate.queryForObject("select last_value from pedido_seq", Long.class);
+    long blocoAtual = (ultimoId == null ? 0 : ultimoId) / ITEM_PEDIDO_BLOCK_SIZE;
+
+    for (long bloco = blocoAtual; bloco <= blocoAtual + 1; bloco++) {
+      jdbcTemplate.execute("create table if not exists " + itemPedidoPartition(bloco)
+          + " partition of item_pedido for values from (" + bloco * ITEM_PEDIDO_BLOCK_SIZE
+          + ") to (" + (bloco + 1) * ITEM_PEDIDO_BLOCK_SIZE + ")");
+    }
+  }
+
+  /**
+   * Desanexa as partições mensais de {@code pedido} anteriores ao limite,
+   * junto com os seus dependentes, e, em seguida, os blocos de
+   * {@code item_pedido} inteiramente abaixo do menor id de pedido restante.
+   */
+  void detachOldPartitions(YearMonth limite) {
+    String limiteNome = pedidoPartition(limite);
+
+    for (String particao : partitionsOf("pedido")) {
+      if (particao.matches("pedido_\\d{4}_\\d{2}") && particao.compareTo(limiteNome) < 0) {
+        YearMonth mes = YearMonth.parse(particao.substring("pedido_".length()), SUFIXO_MES);
+        transactionTemplate.executeWithoutResult(status -> {
+          archiveDependents(particao, mes);
+          jdbcTemplate.execute("alter table pedido detach partition " + particao);
+        });
+        logger.info("Partição {} desanexada de pedido com os seus pagamentos e itens", particao);
+      }
+    }
+
+    Long menorId = jdbcTemplate.queryForObject("select min(id) from pedido", Long.class);
+    if (menorId == null) {
+      return;
+    }
+
+    long menorBloco = menorId / ITEM_PEDIDO_BLOCK_SIZE;
+
+    for (String particao : partitionsOf("item_pedido")) {
+      if (particao.matches("item_pedido_b\\d+")
+          && Long.parseLong(particao.substring("item_pedido_b".length())) < menorBloco) {
+        jdbcTemplate.execute("alter table item_pedido detach partition " + particao);
+        logger.info("Partição {} desanexada de item_pedido", particao);
+      }
+    }
+  }
+
+  /**
+   * Move para as tabelas de arquivo do mês os pagamentos, subtipos de
+   * pagamento e itens dos pedidos do mês, liberando a partição para ser
+   * desanexada.
+   */
+  private void archiveDependents(String particao, YearMonth mes) {
+    LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+    LocalDateTime fim = mes.plusMonths(1).atDay(1).atStartOfDay();
+
+    for (String subtipo : List.of("pagamento_com_boleto", "pagamento_com_cartao")) {
+      jdbcTemplate.execute("create table if not exists " + particao + "_" + subtipo + " (like " + subtipo + ")");
+      jdbcTemplate.update("with movidos as (delete from " + subtipo + " s using pagamento pg"
+          + " where pg.pedido_id = s.pedido_id and pg.pedido_instante >= ? and pg.pedido_instante < ?"
+          + " returning s.*) insert into " + particao + "_" + subtipo + " select * from movidos", inicio, fim);
+    }
+
+    for (String tabela : List.of("pagamento", "item_pedido")) {
+      jdbcTemplate.execute("create table if not exists " + particao + "_" + tabela + " (like " + tabela + ")");
+      jdbcTemplate.update("with movidos as (delete from " + tabela
+          + " where pedido_instante >= ? and pedido_instante < ? returning *) insert into " + particao + "_"
+          + tabela + " select * from movidos", inicio, fim);
+    }
+  }
+
+  private List<String> partitionsOf(String tabela) {
+    return jdbcTemplate.queryForList(PARTICOES_SQL, String.class, tabela);
+  }
+
+  static String pedidoPartition(YearMonth mes) {
+    return "pedido_" + mes.format(SUFIXO_MES);
+  }
+
+  static String itemPedidoPartition(long bloco) {
+    return "item_pedido_b" + String.format("%04d", bloco);
+  }
+}
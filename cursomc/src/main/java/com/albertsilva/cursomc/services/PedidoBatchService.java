@@ -0,0 +1,392 @@
+package com.albertsilva.cursomc.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.domain.Cliente;
+import com.albertsilva.cursomc.domain.Endereco;
+import com.albertsilva.cursomc.domain.Pedido;
+import com.albertsilva.cursomc.domain.Produto;
+import com.albertsilva.cursomc.domain.enums.TipoPagamento;
+import com.albertsilva.cursomc.dto.pedido.mapper.PedidoMapper;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchItemResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
+import com.albertsilva.cursomc.repositories.ClienteRepository;
+import com.albertsilva.cursomc.repositories.EnderecoRepository;
+import com.albertsilva.cursomc.repositories.PedidoRepository;
+import com.albertsilva.cursomc.repositories.ProdutoRepository;
+import com.albertsilva.cursomc.services.exceptions.BusinessException;
+import com.albertsilva.cursomc.services.exceptions.DataIntegrityException;
+import com.albertsilva.cursomc.services.exceptions.EstoqueInsuficienteException;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+
+/**
+ * Serviço responsável pela ingestão de pedidos em lote.
+ *
+ * <p>
+ * Voltado a integrações que enviam milhares de pedidos de uma vez. Em vez
+ * de uma requisição e uma transação por pedido, o lote é dividido em
+ * blocos e, para cada bloco:
+ * </p>
+ * <ol>
+ * <li>Clientes, endereços e produtos referenciados são resolvidos em três
+ * consultas {@code IN};</li>
+ * <li>Cada pedido é validado individualmente, e os inválidos são
+ * reportados sem interromper o bloco;</li>
+ * <li>Os pedidos válidos são gravados em uma única transação, com INSERTs
+ * em lote.</li>
+ * </ol>
+ *
+ * <p>
+ * Se a gravação de um bloco falhar no banco (por exemplo, violação de
+ * restrição), a transação do bloco é desfeita e seus pedidos são regravados
+ * um a um, isolando o pedido defeituoso. Assim, um pedido ruim nunca
+ * desfaz o lote inteiro.
+ * </p>
+ */
+@Service
+public class PedidoBatchService {
+
+  private static final Logger logger = LoggerFactory.getLogger(PedidoBatchService.class);
+
+  private final PedidoService pedidoService;
+  private final PedidoRepository pedidoRepository;
+  private final ClienteRepository clienteRepository;
+  private final EnderecoRepository enderecoRepository;
+  private final ProdutoRepository produtoRepository;
+  private final EstoqueService estoqueService;
+  private final OutboxService outboxService;
+  private final PedidoMapper pedidoMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int maxSize;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param pedidoService      serviço que monta o agregado {@link Pedido}
+   * @param pedidoRepository   repositório de {@link Pedido}
+   * @param clienteRepository  repositório de {@link Cliente}
+   * @param enderecoRepository repositório de {@link Endereco}
+   * @param produtoRepository  repositório de {@link Produto}
+   * @param estoqueService     reserva de estoque dos itens
+   * @param outboxService      registro dos eventos de pedido criado
+   * @param pedidoMapper       conversão dos pedidos gravados para os eventos
+   * @param transactionManager gerenciador das transações por bloco
+   * @param chunkSize          quantidade de pedidos gravados por transação
+   * @param maxSize            quantidade máxima de pedidos por lote
+   */
+  public PedidoBatchService(
+      PedidoService pedidoService,
+      PedidoRepository pedidoRepository,
+      ClienteRepository clienteRepository,
+      EnderecoRepository enderecoRepository,
+      ProdutoRepository produtoRepository,
+      EstoqueService estoqueService,
+      OutboxService outboxService,
+      PedidoMapper pedidoMapper,
+      PlatformTransactionManager transactionManager,
+      @Value("${cursomc.pedido.batch.chunk-size:100}") int chunkSize,
+      @Value("${cursomc.pedido.batch.max-size:5000}") int maxSize) {
+
+    this.pedidoService = pedidoService;
+    this.pedidoRepository = pedidoRepository;
+    this.clienteRepository = clienteRepository;
+    this.enderecoRepository = enderecoRepository;
+    this.produtoRepository = produtoRepository;
+    this.estoqueService = estoqueService;
+    this.outboxService = outboxService;
+    this.pedidoMapper = pedidoMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Grava um lote de pedidos, reportando o resultado de cada um.
+   *
+   * @param dtos pedidos a serem gravados
+   * @return resultado consolidado e individual, na ordem de envio
+   *
+   * @throws InvalidRequestException se o lote estiver vazio ou exceder o
+   *                                 tamanho máximo
+   */
+  public PedidoBatchResponse insertAll(List<PedidoInsertRequest> dtos) {
+
+    if (dtos == null || dtos.isEmpty()) {
+      throw new InvalidRequestException("O lote deve conter ao menos um pedido.");
+    }
+
+    if (dtos.size() > maxSize) {
+      throw new InvalidRequestException("O lote excede o limite de " + maxSize + " pedidos.");
+    }
+
+    return PedidoBatchResponse.of(insertChunked(dtos));
+  }
+
+  /**
+   * Grava os pedidos em blocos de {@code chunkSize}, cada um em sua própria
+   * transação.
+   *
+   * @param dtos pedidos a serem gravados
+   * @return resultado de cada pedido, na ordem de envio
+   */
+  public List<PedidoBatchItemResponse> insertChunked(List<PedidoInsertRequest> dtos) {
+    return insertChunked(dtos, resultados -> {
+    });
+  }
+
+  /**
+   * Grava os pedidos em blocos de {@code chunkSize}, executando
+   * {@code registrar} com os resultados de cada bloco dentro da mesma
+   * transação que gravou seus pedidos.
+   *
+   * <p>
+   * Quem chama pode assim registrar o resultado de forma atômica com os
+   * pedidos: se {@code registrar} lançar uma exceção, o bloco é desfeito.
+   * Os pedidos rejeitados na regravação individual são registrados em uma
+   * transação própria, já que nada foi gravado para eles.
+   * </p>
+   *
+   * @param dtos      pedidos a serem gravados
+   * @param registrar recebe os resultados de cada bloco ou pedido, com o
+   *                  índice relativo a {@code dtos}
+   * @return resultado de cada pedido, na ordem de envio
+   */
+  public List<PedidoBatchItemResponse> insertChunked(List<PedidoInsertRequest> dtos,
+      Consumer<List<PedidoBatchItemResponse>> registrar) {
+
+    List<PedidoBatchItemResponse> resultados = new ArrayList<>(dtos.size());
+
+    for (int inicio = 0; inicio < dtos.size(); inicio += chunkSize) {
+      int fim = Math.min(inicio + chunkSize, dtos.size());
+      resultados.addAll(insertChunk(dtos.subList(inicio, fim), inicio, registrar));
+    }
+
+    return resultados;
+  }
+
+  /**
+   * Grava um bloco em uma transação; se o banco rejeitar o bloco,
+   * regrava os pedidos individualmente.
+   */
+  private List<PedidoBatchItemResponse> insertChunk(List<PedidoInsertRequest> chunk, int offset,
+      Consumer<List<PedidoBatchItemResponse>> registrar) {
+
+    try {
+      return transactionTemplate.execute(status -> {
+        List<PedidoBatchItemResponse> resultados = persistChunk(chunk, offset);
+        registrar.accept(resultados);
+        return resultados;
+      });
+    } catch (RuntimeException e) {
+
+      logger.warn("Falha ao gravar bloco de {} pedidos a partir do índice {}; regravando individualmente: {}",
+          chunk.size(), offset, e.getMessage());
+
+      List<PedidoBatchItemResponse> resultados = new ArrayList<>(chunk.size());
+
+      for (int i = 0; i < chunk.size(); i++) {
+        resultados.add(insertSingle(chunk.get(i), offset + i, registrar));
+      }
+
+      return resultados;
+    }
+  }
+
+  /**
+   * Grava um único pedido em sua própria transação.
+   *
+   * <p>
+   * A falha é reportada com a sua causa: uma {@link BusinessException} sem
+   * alteração; as demais como {@link DataIntegrityException} com o nome da
+   * restrição violada ou a mensagem da causa original.
+   * </p>
+   */
+  private PedidoBatchItemResponse insertSingle(PedidoInsertRequest dto, int indice,
+      Consumer<List<PedidoBatchItemResponse>> registrar) {
+
+    try {
+      return transactionTemplate.execute(status -> {
+        List<PedidoBatchItemResponse> resultado = persistChunk(List.of(dto), indice);
+        registrar.accept(resultado);
+        return resultado;
+      }).get(0);
+    } catch (RuntimeException e) {
+      logger.warn("Falha ao gravar pedido de índice {} do lote: {}", indice, e.getMessage());
+      PedidoBatchItemResponse falha = PedidoBatchItemResponse.falha(indice, causa(e));
+      transactionTemplate.executeWithoutResult(status -> registrar.accept(List.of(falha)));
+      return falha;
+    }
+  }
+
+  /**
+   * Converte a falha da gravação individual na exceção reportada para o
+   * pedido.
+   */
+  private static BusinessException causa(RuntimeException e) {
+
+    if (e instanceof BusinessException negocio) {
+      return negocio;
+    }
+
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+        return new DataIntegrityException(
+            "Pedido rejeitado pelo banco de dados: restrição " + violacao.getConstraintName() + " violada.");
+      }
+    }
+
+    String mensagem = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    return new DataIntegrityException(e instanceof DataAccessException
+        ? "Pedido rejeitado pelo banco de dados: " + mensagem
+        : "Pedido não gravado: " + mensagem);
+  }
+
+  /**
+   * Resolve as referências do bloco, valida e grava os pedidos válidos.
+   *
+   * <p>
+   * Pedidos sem estoque são reportados como falha; as reservas dos demais
+   * são desfeitas se a transação do bloco for revertida. O evento
+   * {@value OutboxService#PEDIDO_CRIADO} de cada pedido gravado é registrado
+   * na mesma transação.
+   * </p>
+   *
+   * <p>
+   * Deve ser executado dentro de uma transação.
+   * </p>
+   */
+  private List<PedidoBatchItemResponse> persistChunk(List<PedidoInsertRequest> chunk, int offset) {
+
+    Map<Integer, Cliente> clientes = byId(
+        clienteRepository.findAllById(ids(chunk, PedidoInsertRequest::clienteId)), Cliente::getId);
+
+    Map<Integer, Endereco> enderecos = byId(
+        enderecoRepository.findAllById(ids(chunk, PedidoInsertRequest::enderecoEntregaId)), Endereco::getId);
+
+    Set<Integer> produtoIds = chunk.stream()
+        .filter(dto -> dto.itens() != null)
+        .flatMap(dto -> dto.itens().stream())
+        .map(ItemPedidoRequest::produtoId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+
+    Map<Integer, Produto> produtos = produtoRepository.findAllByIdAsMap(produtoIds);
+
+    PedidoBatchItemResponse[] resultados = new PedidoBatchItemResponse[chunk.size()];
+    List<Pedido> pedidos = new ArrayList<>();
+    List<Integer> posicoes = new ArrayList<>();
+
+    for (int i = 0; i < chunk.size(); i++) {
+
+      PedidoInsertRequest dto = chunk.get(i);
+      BusinessException erro = validate(dto, clientes, enderecos, produtos);
+
+      if (erro != null) {
+        resultados[i] = PedidoBatchItemResponse.falha(offset + i, erro);
+        continue;
+      }
+
+      Pedido pedido = pedidoService.buildOrder(dto, clientes.get(dto.clienteId()),
+          enderecos.get(dto.enderecoEntregaId()), produtos::get);
+
+      try {
+        estoqueService.reservar(estoqueService.reservadasPor(pedido));
+      } catch (EstoqueInsuficienteException e) {
+        resultados[i] = PedidoBatchItemResponse.falha(offset + i, e);
+        continue;
+      }
+
+      pedidos.add(pedido);
+      posicoes.add(i);
+    }
+
+    pedidoRepository.saveAll(pedidos);
+    List<PedidoResponse> respostas = pedidos.stream().map(pedidoMapper::toResponse).toList();
+    outboxService.registrarTodos(respostas.stream()
+        .map(resposta -> new OutboxService.Evento(OutboxService.PEDIDO_CRIADO, "pedido", resposta.id(), resposta))
+        .toList());
+    pedidoRepository.flush();
+
+    for (int j = 0; j < pedidos.size(); j++) {
+      int posicao = posicoes.get(j);
+      resultados[posicao] = PedidoBatchItemResponse.ok(offset + posicao, respostas.get(j));
+    }
+
+    return Arrays.asList(resultados);
+  }
+
+  /**
+   * Valida um pedido contra as referências resolvidas para o bloco.
+   *
+   * @return exceção que a criação unitária lançaria para o mesmo pedido, ou
+   *         {@code null} se o pedido for válido
+   */
+  private BusinessException validate(PedidoInsertRequest dto, Map<Integer, Cliente> clientes,
+      Map<Integer, Endereco> enderecos, Map<Integer, Produto> produtos) {
+
+    if (!clientes.containsKey(dto.clienteId())) {
+      return new ObjectNotFoundException("Cliente não encontrado! Id: " + dto.clienteId());
+    }
+
+    if (!enderecos.containsKey(dto.enderecoEntregaId())) {
+      return new ObjectNotFoundException("Endereço não encontrado! Id: " + dto.enderecoEntregaId());
+    }
+
+    try {
+      if (TipoPagamento.toEnum(dto.tipoPagamento()) == null) {
+        return new InvalidRequestException("Tipo de pagamento não informado.");
+      }
+    } catch (IllegalArgumentException e) {
+      return new InvalidRequestException("Tipo de pagamento inválido: " + dto.tipoPagamento());
+    }
+
+    if (dto.itens() == null || dto.itens().isEmpty()) {
+      return new InvalidRequestException("O pedido deve conter ao menos um item.");
+    }
+
+    for (ItemPedidoRequest item : dto.itens()) {
+
+      if (!produtos.containsKey(item.produtoId())) {
+        return new ObjectNotFoundException("Produto não encontrado! Id: " + item.produtoId());
+      }
+
+      if (item.quantidade() == null || item.quantidade() <= 0) {
+        return new InvalidRequestException("Quantidade deve ser maior que zero.");
+      }
+    }
+
+    return null;
+  }
+
+  private static Set<Integer> ids(Collection<PedidoInsertRequest> dtos, Function<PedidoInsertRequest, Integer> id) {
+    return dtos.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+  }
+
+  private static <T> Map<Integer, T> byId(List<T> entidades, Function<T, Integer> id) {
+    return entidades.stream().collect(Collectors.toMap(id, Function.identity()));
+  }
+}
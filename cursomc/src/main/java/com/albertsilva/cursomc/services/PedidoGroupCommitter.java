@@ -0,0 +1,288 @@
+package com.albertsilva.cursomc.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchItemResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
+import com.albertsilva.cursomc.services.exceptions.BusinessException;
+import com.albertsilva.cursomc.services.exceptions.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Agrupa criações de pedido simultâneas em uma única transação
+ * ("group commit").
+ *
+ * <p>
+ * Sob carga, cada {@code PedidoService.insert} confirma a sua própria
+ * transação, e o custo dominante passa a ser a sincronização do log do
+ * banco em cada commit. Aqui os pedidos recebidos são enfileirados e uma
+ * thread gravadora os reúne: a partir do primeiro pedido, espera até
+ * {@code cursomc.pedido.group-commit.window} por outros, até
+ * {@code cursomc.pedido.group-commit.max-batch}, e grava o grupo com
+ * {@link PedidoBatchService#insertChunked(List)} — um commit para o grupo
+ * inteiro, com a mesma validação e o mesmo isolamento de falhas por pedido
+ * da gravação em lote.
+ * </p>
+ *
+ * <p>
+ * Cada chamador recebe um {@link CompletableFuture} concluído com o
+ * resultado do seu próprio pedido (resposta ou causa da rejeição), ou usa
+ * {@link #insert(PedidoInsertRequest)}, que aguarda o resultado por até
+ * {@code cursomc.pedido.group-commit.timeout} e se comporta como
+ * {@code PedidoService.insert}. A fila é limitada por
+ * {@code cursomc.pedido.group-commit.max-pending}; com ela cheia, o
+ * chamador aguarda espaço pelo mesmo tempo limite e, esgotado, recebe
+ * {@link ServiceOverloadedException} (503), sem que o pedido seja
+ * enfileirado.
+ * </p>
+ *
+ * <p>
+ * A thread gravadora só é iniciada no primeiro uso e é recriada no uso
+ * seguinte se terminar por um erro inesperado; o modo é ativado em
+ * {@code POST /pedidos} por {@code cursomc.pedido.group-commit.enabled}.
+ * </p>
+ */
+@Component
+public class PedidoGroupCommitter {
+
+  private static final Logger logger = LoggerFactory.getLogger(PedidoGroupCommitter.class);
+
+  private final PedidoBatchService pedidoBatchService;
+  private final Duration window;
+  private final int maxBatch;
+  private final Duration timeout;
+  private final BlockingQueue<Pendente> fila;
+  private final DistributionSummary tamanhoGrupo;
+
+  /**
+   * Protege a criação preguiçosa da thread gravadora.
+   */
+  private final ReentrantLock inicioLock = new ReentrantLock();
+
+  private volatile Thread gravadora;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param pedidoBatchService gravação em lote dos pedidos agrupados
+   * @param window             espera máxima por pedidos após o primeiro do
+   *                           grupo
+   * @param maxBatch           quantidade máxima de pedidos por grupo
+   * @param maxPending         capacidade da fila de pedidos aguardando
+   * @param timeout            espera máxima de {@link #insert} pelo commit
+   *                           do grupo
+   * @param registry           registro de métricas
+   */
+  public PedidoGroupCommitter(
+      PedidoBatchService pedidoBatchService,
+      @Value("${cursomc.pedido.group-commit.window:5ms}") Duration window,
+      @Value("${cursomc.pedido.group-commit.max-batch:100}") int maxBatch,
+      @Value("${cursomc.pedido.group-commit.max-pending:10000}") int maxPending,
+      @Value("${cursomc.pedido.group-commit.timeout:10s}") Duration timeout,
+      MeterRegistry registry) {
+
+    this.pedidoBatchService = pedidoBatchService;
+    this.window = window;
+    this.maxBatch = maxBatch;
+    this.timeout = timeout;
+    this.fila = new ArrayBlockingQueue<>(maxPending);
+    this.tamanhoGrupo = DistributionSummary.builder("cursomc.pedido.group-commit.size")
+        .description("Pedidos gravados por transação no group commit")
+        .register(registry);
+  }
+
+  /**
+   * Enfileira um pedido para o próximo grupo.
+   *
+   * @param dto dados do pedido
+   * @return resultado do pedido, concluído após o commit do grupo
+   *
+   * @throws ServiceOverloadedException se a fila continuar cheia durante
+   *                                     todo o tempo de espera
+   */
+  public CompletableFuture<PedidoBatchItemResponse> submit(PedidoInsertRequest dto) {
+    return enfileirar(dto, timeout.toNanos());
+  }
+
+  /**
+   * Grava o pedido no próximo grupo e aguarda o commit.
+   *
+   * <p>
+   * Um pedido rejeitado resulta na mesma exceção da criação unitária
+   * (404, 409 ou 400). Esgotado o tempo de espera, o pedido ainda pode ser
+   * gravado pelo grupo em andamento; a repetição segura depende de
+   * {@code Idempotency-Key}.
+   * </p>
+   *
+   * @param dto dados do pedido
+   * @return pedido gravado, montado na transação do grupo
+   *
+   * @throws BusinessException           se o pedido for rejeitado
+   * @throws ServiceOverloadedException se a fila estiver cheia ou o grupo
+   *                                     não for confirmado dentro do tempo
+   *                                     de espera, contado desde a chamada
+   */
+  public PedidoResponse insert(PedidoInsertRequest dto) {
+
+    long inicio = System.nanoTime();
+    CompletableFuture<PedidoBatchItemResponse> futuro = enfileirar(dto, timeout.toNanos());
+    long restante = timeout.toNanos() - (System.nanoTime() - inicio);
+
+    PedidoBatchItemResponse resultado;
+    try {
+      resultado = futuro.orTimeout(Math.max(restante, 1), TimeUnit.NANOSECONDS).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        throw new ServiceOverloadedException("Tempo de espera pela gravação do pedido esgotado.", 1);
+      }
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+
+    if (!resultado.sucesso()) {
+      throw resultado.causa();
+    }
+    return resultado.pedido();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    Thread atual = gravadora;
+    if (atual != null) {
+      atual.interrupt();
+    }
+    List<Pendente> restantes = new ArrayList<>();
+    fila.drainTo(restantes);
+    restantes.forEach(pendente -> pendente.resultado()
+        .completeExceptionally(new IllegalStateException("Aplicação em encerramento")));
+  }
+
+  /**
+   * Coloca o pedido na fila, aguardando espaço por até {@code esperaNanos}.
+   */
+  private CompletableFuture<PedidoBatchItemResponse> enfileirar(PedidoInsertRequest dto, long esperaNanos) {
+
+    iniciar();
+
+    CompletableFuture<PedidoBatchItemResponse> resultado = new CompletableFuture<>();
+    try {
+      if (!fila.offer(new Pendente(dto, resultado), esperaNanos, TimeUnit.NANOSECONDS)) {
+        throw new ServiceOverloadedException("Fila de gravação de pedidos cheia; tente novamente em 1s.", 1);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      resultado.completeExceptionally(e);
+    }
+    return resultado;
+  }
+
+  private void iniciar() {
+    Thread atual = gravadora;
+    if (atual != null && atual.isAlive()) {
+      return;
+    }
+    inicioLock.lock();
+    try {
+      if (gravadora == null || !gravadora.isAlive()) {
+        Thread thread = new Thread(this::gravarContinuamente, "pedido-group-commit");
+        thread.setDaemon(true);
+        thread.start();
+        gravadora = thread;
+      }
+    } finally {
+      inicioLock.unlock();
+    }
+  }
+
+  /**
+   * Laço da thread gravadora. Se um erro inesperado encerrar o laço, o
+   * grupo em andamento é concluído com o erro e a próxima chamada de
+   * {@link #submit} cria outra thread, que segue drenando a fila.
+   */
+  private void gravarContinuamente() {
+
+    List<Pendente> grupo = new ArrayList<>(maxBatch);
+
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        coletar(grupo);
+        gravar(grupo);
+        grupo.clear();
+      }
+    } catch (InterruptedException e) {
+      grupo.forEach(pendente -> pendente.resultado().completeExceptionally(e));
+    } catch (Throwable e) {
+      logger.error("Thread de group commit encerrada por erro inesperado", e);
+      grupo.forEach(pendente -> pendente.resultado().completeExceptionally(e));
+      throw e;
+    }
+  }
+
+  /**
+   * Aguarda o primeiro pedido e reúne os que chegarem dentro da janela,
+   * até o tamanho máximo do grupo.
+   */
+  private void coletar(List<Pendente> grupo) throws InterruptedException {
+
+    grupo.add(fila.take());
+
+    long prazo = System.nanoTime() + window.toNanos();
+    while (grupo.size() < maxBatch) {
+      long restante = prazo - System.nanoTime();
+      Pendente proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+      if (proximo == null) {
+        return;
+      }
+      grupo.add(proximo);
+    }
+  }
+
+  /**
+   * Grava o grupo e conclui o futuro de cada pedido. Falhas em tempo de
+   * execução concluem o grupo e a thread segue; um {@link Error} também
+   * conclui o grupo, mas é propagado e encerra a thread.
+   */
+  private void gravar(List<Pendente> grupo) {
+    try {
+      List<PedidoBatchItemResponse> resultados = pedidoBatchService
+          .insertChunked(grupo.stream().map(Pendente::pedido).toList());
+
+      tamanhoGrupo.record(grupo.size());
+      for (int i = 0; i < grupo.size(); i++) {
+        grupo.get(i).resultado().complete(resultados.get(i));
+      }
+    } catch (RuntimeException e) {
+      logger.error("Falha ao gravar grupo de {} pedidos", grupo.size(), e);
+      grupo.forEach(pendente -> pendente.resultado().completeExceptionally(e));
+    }
+  }
+
+  /**
+   * Pedido aguardando gravação e o futuro do seu chamador.
+   */
+  private record Pendente(PedidoInsertRequest pedido, CompletableFuture<PedidoBatchItemResponse> resultado) {
+  }
+}
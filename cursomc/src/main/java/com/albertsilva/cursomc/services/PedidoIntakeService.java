@@ -0,0 +1,287 @@
+package com.albertsilva.cursomc.services;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.albertsilva.cursomc.domain.enums.StatusIntake;
+import com.albertsilva.cursomc.domain.enums.TipoPagamento;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchItemResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoIntakeResponse;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serviço responsável pela fila durável de pedidos recebidos de forma
+ * assíncrona (tabela {@code pedido_intake}).
+ *
+ * <p>
+ * A requisição apenas valida a estrutura do pedido e grava o JSON na fila,
+ * sem montar o agregado nem consultar clientes e produtos. Os workers de
+ * {@link PedidoIntakeWorker} reservam lotes com
+ * {@code FOR UPDATE SKIP LOCKED}, de modo que várias threads (ou várias
+ * instâncias da aplicação) drenam a fila em paralelo sem disputar as
+ * mesmas linhas.
+ * </p>
+ *
+ * <p>
+ * O processamento é no máximo uma vez: um recebimento reservado por um
+ * worker que parou de responder não é reprocessado, e sim marcado como
+ * falho, evitando pedidos duplicados. A situação final é gravada na mesma
+ * transação que o pedido ({@link #complete(List, List)}); assim, um
+ * recebimento ainda em {@link StatusIntake#PROCESSANDO} nunca tem pedido
+ * confirmado, e marcá-lo como falho é seguro.
+ * </p>
+ */
+@Service
+public class PedidoIntakeService {
+
+  private static final Logger logger = LoggerFactory.getLogger(PedidoIntakeService.class);
+
+  private static final String RESERVA_SQL = """
+      select id, payload
+        from pedido_intake
+       where status = ?
+       order by id
+       limit ?
+         for update skip locked
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JsonMapper jsonMapper;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param jdbcTemplate acesso JDBC à tabela {@code pedido_intake}
+   * @param jsonMapper   serializador do pedido recebido
+   */
+  public PedidoIntakeService(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * Valida a estrutura do pedido e o grava na fila.
+   *
+   * <p>
+   * A existência de cliente, endereço e produtos é verificada pelo worker;
+   * uma referência inválida resulta em recebimento com situação
+   * {@link StatusIntake#FALHOU}.
+   * </p>
+   *
+   * @param dto dados do pedido
+   * @return recebimento criado, com situação {@link StatusIntake#PENDENTE}
+   *
+   * @throws InvalidRequestException se o pedido estiver incompleto
+   */
+  @Transactional
+  public PedidoIntakeResponse enqueue(PedidoInsertRequest dto) {
+
+    validate(dto);
+
+    String payload = jsonMapper.writeValueAsString(dto);
+    Timestamp agora = Timestamp.from(Instant.now());
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+
+    jdbcTemplate.update(con -> {
+      PreparedStatement ps = con.prepareStatement(
+          "insert into pedido_intake (status, payload, criado_em, atualizado_em) values (?, ?, ?, ?)",
+          new String[] { "id" });
+      ps.setInt(1, StatusIntake.PENDENTE.getCod());
+      ps.setString(2, payload);
+      ps.setTimestamp(3, agora);
+      ps.setTimestamp(4, agora);
+      return ps;
+    }, keyHolder);
+
+    return new PedidoIntakeResponse(keyHolder.getKey().longValue(), StatusIntake.PENDENTE.name(), null, null);
+  }
+
+  /**
+   * Retorna a situação de um recebimento.
+   *
+   * @param id identificador do recebimento
+   * @return situação atual
+   *
+   * @throws ObjectNotFoundException se o recebimento não existir
+   */
+  @Transactional(readOnly = true)
+  public PedidoIntakeResponse findById(Long id) {
+    return jdbcTemplate.query("select id, status, pedido_id, erro from pedido_intake where id = ?",
+        (rs, n) -> new PedidoIntakeResponse(rs.getLong(1), StatusIntake.toEnum(rs.getInt(2)).name(),
+            (Integer) rs.getObject(3), rs.getString(4)),
+        id)
+        .stream()
+        .findFirst()
+        .orElseThrow(() -> new ObjectNotFoundException("Recebimento de pedido não encontrado! Id: " + id));
+  }
+
+  /**
+   * Reserva até {@code limit} recebimentos pendentes, na ordem de chegada.
+   *
+   * <p>
+   * Linhas já bloqueadas por outro worker são ignoradas. Recebimentos cujo
+   * JSON não pode ser lido são marcados como falhos e não retornados.
+   * </p>
+   *
+   * @param limit quantidade máxima de recebimentos
+   * @return recebimentos reservados, já com situação
+   *         {@link StatusIntake#PROCESSANDO}
+   */
+  @Transactional
+  public List<Reserva> claim(int limit) {
+
+    List<Object[]> linhas = jdbcTemplate.query(RESERVA_SQL,
+        (rs, n) -> new Object[] { rs.getLong(1), rs.getString(2) },
+        StatusIntake.PENDENTE.getCod(), limit);
+
+    List<Reserva> reservas = new ArrayList<>(linhas.size());
+    List<Object[]> falhas = new ArrayList<>();
+    Timestamp agora = Timestamp.from(Instant.now());
+
+    for (Object[] linha : linhas) {
+      Long id = (Long) linha[0];
+      try {
+        reservas.add(new Reserva(id, jsonMapper.readValue((String) linha[1], PedidoInsertRequest.class)));
+      } catch (JacksonException e) {
+        logger.warn("Recebimento de pedido {} com conteúdo ilegível: {}", id, e.getMessage());
+        falhas.add(new Object[] { StatusIntake.FALHOU.getCod(), null, "Conteúdo do pedido ilegível.", agora, id });
+      }
+    }
+
+    jdbcTemplate.batchUpdate(
+        "update pedido_intake set status = ?, tentativas = tentativas + 1, atualizado_em = ? where id = ?",
+        reservas.stream()
+            .map(reserva -> new Object[] { StatusIntake.PROCESSANDO.getCod(), agora, reserva.id() })
+            .toList());
+
+    if (!falhas.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "update pedido_intake set status = ?, pedido_id = ?, erro = ?, atualizado_em = ? where id = ?", falhas);
+    }
+
+    return reservas;
+  }
+
+  /**
+   * Registra o resultado do processamento de recebimentos reservados.
+   *
+   * <p>
+   * Deve participar da transação que gravou os pedidos. Só recebimentos
+   * ainda em {@link StatusIntake#PROCESSANDO} são atualizados; se algum
+   * pedido gravado pertencer a um recebimento já marcado como falho por
+   * {@link #failStale(Duration)}, a exceção desfaz a transação e o pedido
+   * não é confirmado.
+   * </p>
+   *
+   * @param reservas   recebimentos reservados por {@link #claim(int)}
+   * @param resultados resultados de parte ou de todos os pedidos, com o
+   *                   índice da reserva correspondente
+   *
+   * @throws IllegalStateException se um pedido gravado pertencer a um
+   *                               recebimento que não está mais em
+   *                               processamento
+   */
+  @Transactional
+  public void complete(List<Reserva> reservas, List<PedidoBatchItemResponse> resultados) {
+
+    Timestamp agora = Timestamp.from(Instant.now());
+    List<Object[]> parametros = new ArrayList<>(resultados.size());
+
+    for (PedidoBatchItemResponse resultado : resultados) {
+      StatusIntake status = resultado.sucesso() ? StatusIntake.CONCLUIDO : StatusIntake.FALHOU;
+      parametros.add(new Object[] { status.getCod(), resultado.pedidoId(), truncate(resultado.erro()), agora,
+          reservas.get(resultado.indice()).id(), StatusIntake.PROCESSANDO.getCod() });
+    }
+
+    int[] atualizados = jdbcTemplate.batchUpdate(
+        "update pedido_intake set status = ?, pedido_id = ?, erro = ?, atualizado_em = ? where id = ? and status = ?",
+        parametros);
+
+    for (int i = 0; i < atualizados.length; i++) {
+      if (atualizados[i] == 0 && resultados.get(i).sucesso()) {
+        throw new IllegalStateException(
+            "Recebimento de pedido " + reservas.get(resultados.get(i).indice()).id() + " não está mais em processamento");
+      }
+    }
+  }
+
+  /**
+   * Marca como falhos os recebimentos reservados há mais de
+   * {@code timeout}, cujo worker presumivelmente parou.
+   *
+   * @param timeout tempo máximo de processamento de um lote
+   * @return quantidade de recebimentos marcados
+   */
+  @Transactional
+  public int failStale(Duration timeout) {
+    int marcados = jdbcTemplate.update(
+        "update pedido_intake set status = ?, erro = ?, atualizado_em = ? where status = ? and atualizado_em < ?",
+        StatusIntake.FALHOU.getCod(), "Processamento interrompido; envie o pedido novamente.",
+        Timestamp.from(Instant.now()), StatusIntake.PROCESSANDO.getCod(),
+        Timestamp.from(Instant.now().minus(timeout)));
+
+    if (marcados > 0) {
+      logger.warn("{} recebimentos de pedido interrompidos marcados como falhos", marcados);
+    }
+    return marcados;
+  }
+
+  /**
+   * Verifica a estrutura do pedido, sem acessar o banco.
+   */
+  private static void validate(PedidoInsertRequest dto) {
+
+    if (dto == null || dto.clienteId() == null || dto.enderecoEntregaId() == null) {
+      throw new InvalidRequestException("Cliente e endereço de entrega são obrigatórios.");
+    }
+
+    try {
+      if (TipoPagamento.toEnum(dto.tipoPagamento()) == null) {
+        throw new InvalidRequestException("Tipo de pagamento não informado.");
+      }
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRequestException("Tipo de pagamento inválido: " + dto.tipoPagamento());
+    }
+
+    if (dto.itens() == null || dto.itens().isEmpty()) {
+      throw new InvalidRequestException("O pedido deve conter ao menos um item.");
+    }
+
+    for (ItemPedidoRequest item : dto.itens()) {
+      if (item.produtoId() == null || item.quantidade() == null || item.quantidade() <= 0) {
+        throw new InvalidRequestException("Cada item deve informar o produto e uma quantidade maior que zero.");
+      }
+    }
+  }
+
+  private static String truncate(String erro) {
+    return erro == null || erro.length() <= 500 ? erro : erro.substring(0, 500);
+  }
+
+  /**
+   * Recebimento reservado para processamento.
+   *
+   * @param id     identificador do recebimento
+   * @param pedido pedido recebido
+   */
+  public record Reserva(Long id, PedidoInsertRequest pedido) {
+  }
+}
@@ -0,0 +1,163 @@
+package com.albertsilva.cursomc.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Workers que drenam a fila de pedidos assíncronos ({@code pedido_intake})
+ * para as tabelas {@code pedido}, {@code item_pedido} e {@code pagamento}.
+ *
+ * <p>
+ * Cada uma das {@code cursomc.pedido.intake.workers} threads próprias
+ * reserva lotes de {@code cursomc.pedido.intake.batch-size} recebimentos e
+ * os grava com
+ * {@link PedidoBatchService#insertChunked(List, java.util.function.Consumer)}
+ * enquanto houver pendentes; com a fila vazia, a thread se reagenda para
+ * dali a {@code cursomc.pedido.intake.poll-interval} ms. Cada pedido do
+ * lote é aceito ou rejeitado individualmente, e a situação do recebimento
+ * é gravada na mesma transação que o pedido.
+ * </p>
+ *
+ * <p>
+ * A drenagem não ocupa o agendador do Spring: uma fila com entrada
+ * constante manteria a tarefa agendada em execução indefinidamente e
+ * atrasaria as demais ({@code OutboxRelay}, {@code ReplicaLagGuard} etc.).
+ * No agendador fica apenas a marcação das reservas interrompidas, que é
+ * uma única atualização.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "cursomc.pedido.intake.enabled", havingValue = "true", matchIfMissing = true)
+public class PedidoIntakeWorker {
+
+  private static final Logger logger = LoggerFactory.getLogger(PedidoIntakeWorker.class);
+
+  private final PedidoIntakeService pedidoIntakeService;
+  private final PedidoBatchService pedidoBatchService;
+  private final int workers;
+  private final int batchSize;
+  private final long pollInterval;
+  private final Duration processingTimeout;
+  private final ScheduledExecutorService executor;
+  private final AtomicBoolean iniciado = new AtomicBoolean();
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param pedidoIntakeService fila de recebimentos
+   * @param pedidoBatchService  gravação dos pedidos em lote
+   * @param workers             quantidade de threads de processamento
+   * @param batchSize           recebimentos reservados por lote
+   * @param pollInterval        espera, em ms, de um worker que encontrou a
+   *                            fila vazia
+   * @param processingTimeout   tempo após o qual uma reserva é considerada
+   *                            interrompida
+   */
+  public PedidoIntakeWorker(
+      PedidoIntakeService pedidoIntakeService,
+      PedidoBatchService pedidoBatchService,
+      @Value("${cursomc.pedido.intake.workers:2}") int workers,
+      @Value("${cursomc.pedido.intake.batch-size:100}") int batchSize,
+      @Value("${cursomc.pedido.intake.poll-interval:1000}") long pollInterval,
+      @Value("${cursomc.pedido.intake.processing-timeout:5m}") Duration processingTimeout) {
+
+    this.pedidoIntakeService = pedidoIntakeService;
+    this.pedidoBatchService = pedidoBatchService;
+    this.workers = workers;
+    this.batchSize = batchSize;
+    this.pollInterval = pollInterval;
+    this.processingTimeout = processingTimeout;
+
+    AtomicInteger contador = new AtomicInteger();
+    this.executor = Executors.newScheduledThreadPool(workers, tarefa -> {
+      Thread thread = new Thread(tarefa, "pedido-intake-" + contador.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Inicia um laço de drenagem por worker, uma única vez.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (iniciado.compareAndSet(false, true)) {
+      for (int i = 0; i < workers; i++) {
+        executor.execute(this::drainAndReschedule);
+      }
+    }
+  }
+
+  /**
+   * Marca como falhas as reservas sem conclusão após o tempo limite.
+   */
+  @Scheduled(fixedDelayString = "${cursomc.pedido.intake.poll-interval:1000}")
+  public void failStale() {
+    pedidoIntakeService.failStale(processingTimeout);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Drena a fila até esvaziá-la e se reagenda para a próxima varredura. Uma
+   * falha é registrada e não interrompe o laço.
+   */
+  private void drainAndReschedule() {
+    try {
+      while (!Thread.currentThread().isInterrupted() && processBatch() > 0) {
+        // continua enquanto houver recebimentos pendentes
+      }
+    } catch (RuntimeException e) {
+      logger.error("Falha ao processar recebimentos de pedido", e);
+    } finally {
+      if (!executor.isShutdown()) {
+        try {
+          executor.schedule(this::drainAndReschedule, pollInterval, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+          // encerramento em andamento
+        }
+      }
+    }
+  }
+
+  /**
+   * Reserva, grava e registra um lote.
+   *
+   * @return quantidade de recebimentos processados
+   */
+  private int processBatch() {
+
+    List<PedidoIntakeService.Reserva> reservas = pedidoIntakeService.claim(batchSize);
+    if (reservas.isEmpty()) {
+      return 0;
+    }
+
+    List<PedidoInsertRequest> pedidos = reservas.stream().map(PedidoIntakeService.Reserva::pedido).toList();
+    pedidoBatchService.insertChunked(pedidos, resultados -> pedidoIntakeService.complete(reservas, resultados));
+
+    logger.debug("Lote de {} recebimentos de pedido processado", reservas.size());
+    return reservas.size();
+  }
+}
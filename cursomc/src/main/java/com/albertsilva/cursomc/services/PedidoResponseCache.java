@@ -0,0 +1,109 @@
+package com.albertsilva.cursomc.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
+import com.albertsilva.cursomc.dto.pedido.response.EncodedPedidoResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cache de respostas já serializadas (JSON e gzip) de pedidos liquidados.
+ *
+ * <p>
+ * Apenas pedidos com pagamento {@link EstadoPagamento#QUITADO} ou
+ * {@link EstadoPagamento#CANCELADO} são armazenados. As entradas são
+ * indexadas pelo id do pedido e guardam a versão usada como ETag; uma
+ * entrada só é servida se sua versão coincidir com a versão atual, de modo
+ * que alterações feitas fora de {@link PedidoService} (por exemplo, no
+ * nome do cliente) nunca produzem uma resposta desatualizada.
+ * </p>
+ *
+ * <p>
+ * A serialização usa o mesmo {@link JsonMapper} da camada web, e
+ * {@link PedidoService#update} e {@link PedidoService#delete} removem a
+ * entrada do pedido após o commit.
+ * </p>
+ */
+@Component
+public class PedidoResponseCache {
+
+  /**
+   * Nome do cache de respostas serializadas.
+   */
+  public static final String CACHE_NAME = "pedidos-json";
+
+  private static final Set<String> ESTADOS_LIQUIDADOS = Set.of(
+      EstadoPagamento.QUITADO.name(), EstadoPagamento.CANCELADO.name());
+
+  private final Cache cache;
+  private final JsonMapper jsonMapper;
+
+  /**
+   * Construtor para injeção de dependências.
+   *
+   * @param cacheManager gerenciador que provê o cache {@value #CACHE_NAME}
+   * @param jsonMapper   serializador JSON da aplicação
+   */
+  public PedidoResponseCache(CacheManager cacheManager, JsonMapper jsonMapper) {
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * Retorna a resposta serializada do pedido, se houver uma para a versão
+   * informada.
+   *
+   * @param id      identificador do pedido
+   * @param version versão atual do pedido
+   * @return resposta serializada, ou {@code null} se ausente ou de outra
+   *         versão
+   */
+  public EncodedPedidoResponse get(Integer id, String version) {
+    EncodedPedidoResponse encoded = cache.get(id, EncodedPedidoResponse.class);
+    return encoded != null && encoded.version().equals(version) ? encoded : null;
+  }
+
+  /**
+   * Serializa e armazena a resposta, se o pedido estiver liquidado.
+   *
+   * <p>
+   * A entrada é indexada pela versão que a própria resposta carrega, lida
+   * junto com os dados; uma resposta sem versão não é armazenada.
+   * </p>
+   *
+   * @param response resposta do pedido
+   * @return resposta serializada, ou {@code null} se o pedido não estiver
+   *         liquidado ou a resposta não tiver versão
+   */
+  public EncodedPedidoResponse putIfSettled(PedidoResponse response) {
+
+    if (response.version() == null || !ESTADOS_LIQUIDADOS.contains(response.estadoPagamento())) {
+      return null;
+    }
+
+    byte[] json = jsonMapper.writeValueAsBytes(response);
+    EncodedPedidoResponse encoded = new EncodedPedidoResponse(response.version(), json, gzip(json));
+    cache.put(response.id(), encoded);
+    return encoded;
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream saida = new ByteArrayOutputStream(bytes.length / 4 + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return saida.toByteArray();
+  }
+}
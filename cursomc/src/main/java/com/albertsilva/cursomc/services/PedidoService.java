@@ -1,14 +1,25 @@
 package com.albertsilva.cursomc.services;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.albertsilva.cursomc.domain.Cliente;
 import com.albertsilva.cursomc.domain.Endereco;
@@ -20,7 +31,12 @@ import com.albertsilva.cursomc.domain.Pedido;
 import com.albertsilva.cursomc.domain.Produto;
 import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
 import com.albertsilva.cursomc.domain.enums.TipoPagamento;
+import com.albertsilva.cursomc.dto.pagination.CursorPageResponse;
+import com.albertsilva.cursomc.dto.pagination.KeysetCursor;
+import com.albertsilva.cursomc.dto.pedido.event.PagamentoEstadoAlteradoEvent;
 import com.albertsilva.cursomc.dto.pedido.mapper.PedidoMapper;
+import com.albertsilva.cursomc.dto.pedido.projection.ItemPedidoView;
+import com.albertsilva.cursomc.dto.pedido.projection.PedidoView;
 import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
 import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
 import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
@@ -30,6 +46,8 @@ import com.albertsilva.cursomc.repositories.ClienteRepository;
 import com.albertsilva.cursomc.repositories.EnderecoRepository;
 import com.albertsilva.cursomc.repositories.PedidoRepository;
 import com.albertsilva.cursomc.repositories.ProdutoRepository;
+import com.albertsilva.cursomc.services.exceptions.EstoqueInsuficienteException;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
 import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
 
 /**
@@ -61,7 +79,11 @@ public class PedidoService {
   private final ClienteRepository clienteRepository;
   private final EnderecoRepository enderecoRepository;
   private final ProdutoRepository produtoRepository;
+  private final EstoqueService estoqueService;
+  private final OutboxService outboxService;
   private final PedidoMapper pedidoMapper;
+  private final SingleFlight<Integer, PedidoResponse> singleFlight;
+  private final TransactionTemplate readOnlyTransaction;
 
   /**
    * Construtor para injeção de dependências.
@@ -71,21 +93,34 @@ public class PedidoService {
    * @param clienteRepository  repositório para acesso a {@link Cliente}
    * @param enderecoRepository repositório para acesso a {@link Endereco}
    * @param produtoRepository  repositório para acesso a {@link Produto}
+   * @param estoqueService     reserva de estoque dos itens
+   * @param outboxService      registro dos eventos de pedido e pagamento
    * @param pedidoMapper       componente responsável pelo mapeamento entre DTOs e
    *                           entidade
+   * @param singleFlight       coalescência das leituras concorrentes por id
+   * @param transactionManager gerenciador da transação de leitura por id
    */
   public PedidoService(
       PedidoRepository pedidoRepository,
       ClienteRepository clienteRepository,
       EnderecoRepository enderecoRepository,
       ProdutoRepository produtoRepository,
-      PedidoMapper pedidoMapper) {
+      EstoqueService estoqueService,
+      OutboxService outboxService,
+      PedidoMapper pedidoMapper,
+      SingleFlight<Integer, PedidoResponse> singleFlight,
+      PlatformTransactionManager transactionManager) {
 
     this.pedidoRepository = pedidoRepository;
     this.clienteRepository = clienteRepository;
     this.enderecoRepository = enderecoRepository;
     this.produtoRepository = produtoRepository;
+    this.estoqueService = estoqueService;
+    this.outboxService = outboxService;
     this.pedidoMapper = pedidoMapper;
+    this.singleFlight = singleFlight;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
   /**
@@ -96,11 +131,16 @@ public class PedidoService {
    * </p>
    * <ol>
    * <li>Recupera cliente e endereço de entrega;</li>
+   * <li>Resolve todos os produtos do pedido de uma só vez, rejeitando ids
+   * inexistentes antes de qualquer gravação;</li>
    * <li>Cria a instância concreta de {@link Pagamento} conforme o tipo
    * informado;</li>
    * <li>Instancia o agregado {@link Pedido};</li>
    * <li>Cria e associa os {@link ItemPedido};</li>
-   * <li>Persiste o agregado completo;</li>
+   * <li>Reserva o estoque dos itens em {@link EstoqueService} (desfeito se
+   * a transação for revertida);</li>
+   * <li>Persiste o agregado completo e registra o evento
+   * {@value OutboxService#PEDIDO_CRIADO} na mesma transação;</li>
    * <li>Retorna o DTO de resposta.</li>
    * </ol>
    *
@@ -108,6 +148,8 @@ public class PedidoService {
    * @return {@link PedidoResponse} representando o pedido criado
    *
    * @throws IllegalArgumentException se o tipo de pagamento for inválido
+   * @throws ObjectNotFoundException  se algum produto não existir
+   * @throws EstoqueInsuficienteException se faltar estoque para algum item
    */
   @Transactional
   public PedidoResponse insert(PedidoInsertRequest dto) {
@@ -115,42 +157,172 @@ public class PedidoService {
     Cliente cliente = searchCustomer(dto);
     Endereco endereco = searchAddress(dto);
 
-    Pagamento pagamento = createPayment(dto);
-
-    Pedido pedido = createOrder(dto, cliente, endereco, pagamento);
+    Map<Integer, Produto> produtos = searchProducts(
+        dto.itens().stream().map(ItemPedidoRequest::produtoId).toList());
 
-    Set<ItemPedido> itens = createItems(dto, pedido);
+    Pedido pedido = buildOrder(dto, cliente, endereco, produtos::get);
 
-    pedido.setItens(itens);
+    estoqueService.reservar(estoqueService.reservadasPor(pedido));
 
     pedido = pedidoRepository.save(pedido);
 
-    return pedidoMapper.toResponse(pedido);
+    PedidoResponse response = pedidoMapper.toResponse(pedido);
+    outboxService.registrar(OutboxService.PEDIDO_CRIADO, "pedido", response.id(), response);
+
+    return response;
+  }
+
+  /**
+   * Monta o agregado {@link Pedido}, ainda não persistido, com pagamento
+   * e itens.
+   *
+   * <p>
+   * Compartilhado entre a criação unitária e a ingestão em lote
+   * ({@link PedidoBatchService}), que resolve cliente, endereço e produtos
+   * previamente em consultas agrupadas.
+   * </p>
+   *
+   * @param dto      dados do pedido
+   * @param cliente  cliente associado
+   * @param endereco endereço de entrega
+   * @param produtos função que resolve um {@link Produto} pelo id
+   * @return agregado pronto para persistência
+   *
+   * @throws IllegalArgumentException se o tipo de pagamento for inválido
+   */
+  public Pedido buildOrder(PedidoInsertRequest dto, Cliente cliente, Endereco endereco,
+      Function<Integer, Produto> produtos) {
+
+    Pagamento pagamento = createPayment(dto);
+
+    Pedido pedido = createOrder(dto, cliente, endereco, pagamento);
+
+    pedido.setItens(createItems(dto, pedido, produtos));
+
+    return pedido;
   }
 
   /**
    * Retorna uma página de pedidos.
    *
+   * <p>
+   * A leitura não carrega entidades {@link Pedido}: os cabeçalhos da
+   * página são projetados diretamente em {@link PedidoView}, com o total
+   * calculado pelo banco, e os itens de toda a página são obtidos em uma
+   * única consulta adicional.
+   * </p>
+   *
+   * <p>
+   * O número de consultas por página é fixo, independentemente do
+   * tamanho da página.
+   * </p>
+   *
    * @param pageable informações de paginação
    * @return página contendo {@link PedidoResponse}
    */
   @Transactional(readOnly = true)
   public Page<PedidoResponse> findAllPaged(Pageable pageable) {
-    return pedidoRepository.findAll(pageable)
-        .map(pedidoMapper::toResponse);
+
+    Page<PedidoView> views = pedidoRepository.findViewsPaged(pageable);
+
+    return new PageImpl<>(toResponses(views.getContent()), pageable, views.getTotalElements());
+  }
+
+  /**
+   * Retorna uma página de pedidos por paginação por chave (keyset).
+   *
+   * <p>
+   * Os pedidos são ordenados por ({@code instante}, {@code id}). O cursor
+   * informado identifica o último pedido da página anterior; a consulta
+   * busca diretamente a partir dele, sem OFFSET, mantendo o custo
+   * proporcional ao tamanho da página em qualquer profundidade.
+   * </p>
+   *
+   * @param cursor cursor opaco da página anterior, ou vazio para a primeira
+   *               página
+   * @param size   tamanho da página
+   * @return página contendo {@link PedidoResponse} e o cursor da próxima
+   *         página
+   *
+   * @throws InvalidRequestException se o cursor for inválido
+   */
+  @Transactional(readOnly = true)
+  public CursorPageResponse<PedidoResponse> findAllByCursor(String cursor, int size) {
+
+    Limit limit = Limit.of(size + 1);
+
+    List<PedidoView> views;
+    if (cursor == null || cursor.isBlank()) {
+      views = pedidoRepository.findFirstViewsByInstante(limit);
+    } else {
+      KeysetCursor keyset = KeysetCursor.decode(cursor);
+      views = pedidoRepository.findViewsAfter(new Date(keyset.sortValueAsLong()), keyset.id(), limit);
+    }
+
+    boolean hasNext = views.size() > size;
+    List<PedidoResponse> content = toResponses(hasNext ? views.subList(0, size) : views);
+
+    String nextCursor = null;
+    if (hasNext) {
+      PedidoResponse last = content.get(content.size() - 1);
+      nextCursor = new KeysetCursor(String.valueOf(last.instante().getTime()), last.id()).encode();
+    }
+
+    return new CursorPageResponse<>(content, size, nextCursor);
   }
 
   /**
    * Busca um pedido pelo seu identificador.
    *
+   * <p>
+   * Assim como a listagem, usa as projeções de leitura em vez da entidade.
+   * </p>
+   *
+   * <p>
+   * Leituras simultâneas do mesmo pedido são coalescidas em
+   * {@link SingleFlight}: apenas uma abre transação e consulta o banco.
+   * Uma leitura compartilhada pode ser anterior a uma alteração recém
+   * confirmada; a resposta carrega a versão lida junto com os dados, que
+   * deve ser usada como ETag no lugar de {@link #findVersion(Integer)}.
+   * </p>
+   *
    * @param id identificador do pedido
    * @return {@link PedidoResponse} correspondente
    *
    * @throws ObjectNotFoundException caso o pedido não seja encontrado
    */
-  @Transactional(readOnly = true)
   public PedidoResponse findById(Integer id) {
-    return pedidoMapper.toResponse(findEntityById(id));
+    return singleFlight.load(id, () -> readOnlyTransaction.execute(status -> loadById(id)));
+  }
+
+  /**
+   * Monta a resposta do pedido a partir das projeções de leitura.
+   */
+  private PedidoResponse loadById(Integer id) {
+
+    PedidoView view = pedidoRepository.findViewById(id)
+        .orElseThrow(() -> new ObjectNotFoundException("Pedido não encontrado! Id: " + id));
+
+    return pedidoMapper.toResponse(view, pedidoRepository.findItemViewsByPedidoIdIn(List.of(id)));
+  }
+
+  /**
+   * Retorna a versão atual do pedido, usada como ETag do recurso.
+   *
+   * <p>
+   * Executa apenas uma consulta escalar, sem carregar o agregado; permite
+   * responder a requisições condicionais sem montar a resposta completa.
+   * </p>
+   *
+   * @param id identificador do pedido
+   * @return versão do pedido combinada à do cliente
+   *
+   * @throws ObjectNotFoundException caso o pedido não seja encontrado
+   */
+  @Transactional(readOnly = true)
+  public String findVersion(Integer id) {
+    return pedidoRepository.findVersionById(id)
+        .orElseThrow(() -> new ObjectNotFoundException("Pedido não encontrado! Id: " + id));
   }
 
   /**
@@ -166,43 +338,99 @@ public class PedidoService {
    * <li>Itens do pedido.</li>
    * </ul>
    *
+   * <p>
+   * A versão do pedido é sempre incrementada, mesmo quando apenas itens ou
+   * pagamento mudam, para que o ETag do recurso acompanhe a alteração.
+   * As reservas de estoque acompanham os novos itens; com o pagamento
+   * cancelado, todo o estoque do pedido é liberado após o commit. Uma
+   * mudança no estado do pagamento registra o evento
+   * {@value OutboxService#PAGAMENTO_ESTADO_ALTERADO}.
+   * Após o commit, a resposta serializada do pedido é removida de
+   * {@link PedidoResponseCache}.
+   * </p>
+   *
    * @param id  identificador do pedido
    * @param dto dados atualizados
    * @return {@link PedidoResponse} atualizado
    *
-   * @throws ObjectNotFoundException se o pedido não existir
+   * @throws ObjectNotFoundException se o pedido ou algum produto não
+   *                                 existir
    * @throws IllegalStateException   se o pedido não possuir pagamento associado
+   * @throws EstoqueInsuficienteException se faltar estoque para os
+   *                                      acréscimos de itens
    */
+  @CacheEvict(cacheNames = PedidoResponseCache.CACHE_NAME, key = "#id")
   @Transactional
   public PedidoResponse update(Integer id, PedidoUpdateRequest dto) {
 
     Pedido pedido = findEntityById(id);
+    pedidoRepository.incrementVersion(pedido);
+
+    Map<Integer, Integer> reservadasAntes = estoqueService.reservadasPor(pedido);
 
     pedido.setCliente(clienteRepository.getReferenceById(dto.clienteId()));
     pedido.setEnderecoDeEntrega(enderecoRepository.getReferenceById(dto.enderecoId()));
 
+    EstadoPagamento estadoAnterior = pedido.getPagamento() == null ? null : pedido.getPagamento().getEstado();
     atualizarPagamento(pedido, dto.estadoPagamento());
+    EstadoPagamento estadoAtual = pedido.getPagamento().getEstado();
+    if (estadoAtual != estadoAnterior) {
+      outboxService.registrar(OutboxService.PAGAMENTO_ESTADO_ALTERADO, "pedido", id,
+          new PagamentoEstadoAlteradoEvent(id, estadoAnterior.name(), estadoAtual.name()));
+    }
+
+    Map<Integer, Produto> produtos = searchProducts(
+        dto.itens().stream().map(ItemPedidoUpdateRequest::produtoId).toList());
 
     Map<Produto, Integer> novosItens = dto.itens().stream()
-        .collect(Collectors.toMap(item -> produtoRepository.getReferenceById(item.produtoId()),
-            ItemPedidoUpdateRequest::quantidade));
+        .collect(Collectors.toMap(item -> produtos.get(item.produtoId()), ItemPedidoUpdateRequest::quantidade));
 
     pedido.atualizarItens(novosItens);
+    estoqueService.ajustar(reservadasAntes, estoqueService.reservadasPor(pedido));
+    singleFlight.forgetAfterCommit(id);
 
     return pedidoMapper.toResponse(pedido);
   }
 
   /**
-   * Remove um pedido do sistema.
+   * Remove um pedido do sistema e sua resposta serializada de
+   * {@link PedidoResponseCache}, liberando o estoque que ele ainda
+   * reservava.
    *
    * @param id identificador do pedido
    *
    * @throws ObjectNotFoundException se o pedido não existir
    */
+  @CacheEvict(cacheNames = PedidoResponseCache.CACHE_NAME, key = "#id")
   @Transactional
   public void delete(Integer id) {
     Pedido pedido = findEntityById(id);
+    estoqueService.liberar(estoqueService.reservadasPor(pedido));
     pedidoRepository.delete(pedido);
+    singleFlight.forgetAfterCommit(id);
+  }
+
+  /**
+   * Carrega os itens dos pedidos informados em uma única consulta e
+   * monta as respostas, preservando a ordem dos cabeçalhos.
+   *
+   * @param views cabeçalhos já ordenados
+   * @return respostas na mesma ordem dos cabeçalhos
+   */
+  private List<PedidoResponse> toResponses(List<PedidoView> views) {
+
+    if (views.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Integer, List<ItemPedidoView>> itens = pedidoRepository
+        .findItemViewsByPedidoIdIn(views.stream().map(PedidoView::id).toList())
+        .stream()
+        .collect(Collectors.groupingBy(ItemPedidoView::pedidoId));
+
+    return views.stream()
+        .map(view -> pedidoMapper.toResponse(view, itens.getOrDefault(view.id(), List.of())))
+        .toList();
   }
 
   /**
@@ -231,6 +459,38 @@ public class PedidoService {
     return enderecoRepository.getReferenceById(dto.enderecoEntregaId());
   }
 
+  /**
+   * Resolve os produtos referenciados pelo pedido.
+   *
+   * <p>
+   * Todos os produtos são obtidos em uma única operação (contexto de
+   * persistência, cache de segundo nível e, para os restantes, uma
+   * consulta {@code IN}), em vez de inicializar um proxy por item.
+   * </p>
+   *
+   * @param ids identificadores informados nos itens
+   * @return produtos indexados pelo identificador
+   *
+   * @throws ObjectNotFoundException se algum produto não existir
+   */
+  Map<Integer, Produto> searchProducts(Collection<Integer> ids) {
+
+    Set<Integer> distintos = new LinkedHashSet<>(ids);
+
+    Map<Integer, Produto> produtos = produtoRepository.findAllByIdAsMap(
+        distintos.stream().filter(Objects::nonNull).toList());
+
+    List<Integer> inexistentes = distintos.stream()
+        .filter(id -> !produtos.containsKey(id))
+        .toList();
+
+    if (!inexistentes.isEmpty()) {
+      throw new ObjectNotFoundException("Produto não encontrado! Ids: " + inexistentes);
+    }
+
+    return produtos;
+  }
+
   /**
    * Cria a instância concreta de {@link Pagamento} de acordo com o tipo
    * informado.
@@ -268,13 +528,13 @@ public class PedidoService {
   /**
    * Cria os itens do pedido a partir do DTO.
    */
-  private Set<ItemPedido> createItems(PedidoInsertRequest dto, Pedido pedido) {
+  private Set<ItemPedido> createItems(PedidoInsertRequest dto, Pedido pedido, Function<Integer, Produto> produtos) {
 
     Set<ItemPedido> itens = new HashSet<>();
 
     for (ItemPedidoRequest itemDto : dto.itens()) {
 
-      Produto produto = produtoRepository.getReferenceById(itemDto.produtoId());
+      Produto produto = produtos.apply(itemDto.produtoId());
 
       ItemPedido item = new ItemPedido(pedido, produto, 0.0, itemDto.quantidade(), produto.getPreco());
 
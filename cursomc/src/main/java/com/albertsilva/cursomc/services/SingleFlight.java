@@ -0,0 +1,190 @@
+package com.albertsilva.cursomc.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalescência de cargas concorrentes por chave ("single flight").
+ *
+ * <p>
+ * Quando várias threads pedem a mesma chave ao mesmo tempo, apenas a
+ * primeira executa a carga; as demais aguardam e recebem o mesmo resultado
+ * (ou a mesma exceção). Uma carga concluída com sucesso ainda pode ser
+ * reaproveitada por até {@code staleness}; com staleness zero, somente
+ * chamadas simultâneas são agrupadas e nenhum resultado é retido.
+ * </p>
+ *
+ * <p>
+ * Métricas registradas, com a tag {@code name}:
+ * </p>
+ * <ul>
+ * <li>{@code cursomc.singleflight.calls{result=loaded}}: chamadas que
+ * executaram a carga;</li>
+ * <li>{@code cursomc.singleflight.calls{result=shared}}: chamadas que
+ * aguardaram uma carga em andamento;</li>
+ * <li>{@code cursomc.singleflight.calls{result=reused}}: chamadas atendidas
+ * por uma carga recente, dentro da janela de staleness.</li>
+ * </ul>
+ *
+ * @param <K> tipo da chave
+ * @param <V> tipo do valor carregado
+ */
+public final class SingleFlight<K, V> {
+
+  private static final int MAX_RETAINED = 10_000;
+
+  private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+  private final long stalenessNanos;
+  private final Counter loaded;
+  private final Counter shared;
+  private final Counter reused;
+
+  /**
+   * @param name      nome usado na tag das métricas
+   * @param staleness tempo pelo qual um resultado concluído é reaproveitado
+   * @param registry  registro de métricas
+   */
+  public SingleFlight(String name, Duration staleness, MeterRegistry registry) {
+    this.stalenessNanos = staleness.toNanos();
+    this.loaded = counter(registry, name, "loaded");
+    this.shared = counter(registry, name, "shared");
+    this.reused = counter(registry, name, "reused");
+  }
+
+  /**
+   * Retorna o valor da chave, executando {@code loader} apenas se não houver
+   * carga em andamento nem resultado recente para ela.
+   *
+   * @param key    chave
+   * @param loader carga executada na thread chamadora, se necessária
+   * @return valor carregado
+   */
+  public V load(K key, Supplier<V> loader) {
+
+    while (true) {
+
+      Flight<V> existente = flights.get(key);
+
+      if (existente != null) {
+        if (!existente.future.isDone()) {
+          shared.increment();
+          return join(existente.future);
+        }
+        if (existente.isFresh(stalenessNanos)) {
+          reused.increment();
+          return join(existente.future);
+        }
+        flights.remove(key, existente);
+      }
+
+      Flight<V> novo = new Flight<>();
+      if (flights.putIfAbsent(key, novo) != null) {
+        continue;
+      }
+
+      loaded.increment();
+      return run(key, novo, loader);
+    }
+  }
+
+  /**
+   * Descarta a carga da chave, concluída ou em andamento; chamadas
+   * seguintes executam uma nova carga.
+   *
+   * <p>
+   * Uma carga em andamento não é interrompida: quem já a aguardava recebe o
+   * seu resultado, mas ela deixa de ser compartilhada com novas chamadas e
+   * não é retida ao terminar.
+   * </p>
+   *
+   * @param key chave
+   */
+  public void forget(K key) {
+    flights.remove(key);
+  }
+
+  /**
+   * Descarta a carga da chave após o commit da transação corrente, ou
+   * imediatamente se não houver transação.
+   *
+   * <p>
+   * Usado pelas escritas: descartar antes do commit permitiria que uma
+   * carga iniciada entre o descarte e o commit lesse o valor anterior e
+   * continuasse sendo compartilhada depois da alteração.
+   * </p>
+   *
+   * @param key chave
+   */
+  public void forgetAfterCommit(K key) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          forget(key);
+        }
+      });
+    } else {
+      forget(key);
+    }
+  }
+
+  private V run(K key, Flight<V> flight, Supplier<V> loader) {
+    try {
+      V valor = loader.get();
+      flight.completedAt = System.nanoTime();
+      flight.future.complete(valor);
+      if (stalenessNanos <= 0) {
+        flights.remove(key, flight);
+      } else if (flights.size() > MAX_RETAINED) {
+        flights.values().removeIf(f -> f.future.isDone() && !f.isFresh(stalenessNanos));
+      }
+      return valor;
+    } catch (RuntimeException | Error e) {
+      flights.remove(key, flight);
+      flight.future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private static <V> V join(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+
+  private static Counter counter(MeterRegistry registry, String name, String result) {
+    return Counter.builder("cursomc.singleflight.calls")
+        .tag("name", name)
+        .tag("result", result)
+        .description("Chamadas de carga coalescidas por chave")
+        .register(registry);
+  }
+
+  private static final class Flight<V> {
+
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    private volatile long completedAt;
+
+    private boolean isFresh(long stalenessNanos) {
+      return !future.isCompletedExceptionally() && System.nanoTime() - completedAt < stalenessNanos;
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.albertsilva.cursomc.services.exceptions;
+
+/**
+ * Exceção lançada quando não há estoque disponível para reservar as
+ * quantidades de um pedido.
+ *
+ * <p>
+ * Retorna o status HTTP {@code 409 - Conflict}: o pedido é válido, mas
+ * incompatível com o estoque atual do produto. Nenhuma quantidade do
+ * pedido permanece reservada.
+ * </p>
+ */
+public class EstoqueInsuficienteException extends BusinessException {
+
+  /**
+   * Constrói a exceção com a mensagem informada.
+   *
+   * @param message descrição do produto sem estoque suficiente
+   */
+  public EstoqueInsuficienteException(String message) {
+    super(message, 409);
+  }
+}
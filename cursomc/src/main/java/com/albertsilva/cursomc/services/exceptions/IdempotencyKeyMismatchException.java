@@ -0,0 +1,23 @@
+package com.albertsilva.cursomc.services.exceptions;
+
+/**
+ * Exceção lançada quando uma {@code Idempotency-Key} já utilizada é
+ * reenviada com um corpo de requisição diferente do original.
+ *
+ * <p>
+ * Retorna o status HTTP {@code 422 - Unprocessable Content}: a chave
+ * identifica uma operação já registrada, e repeti-la com outro conteúdo
+ * indica erro do cliente, não uma nova tentativa.
+ * </p>
+ */
+public class IdempotencyKeyMismatchException extends BusinessException {
+
+  /**
+   * Constrói a exceção com a mensagem informada.
+   *
+   * @param message descrição do conflito
+   */
+  public IdempotencyKeyMismatchException(String message) {
+    super(message, 422);
+  }
+}
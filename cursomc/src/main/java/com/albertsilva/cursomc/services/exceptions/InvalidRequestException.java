@@ -0,0 +1,29 @@
+package com.albertsilva.cursomc.services.exceptions;
+
+/**
+ * Exceção lançada quando os parâmetros de uma requisição são
+ * sintaticamente válidos, mas não podem ser interpretados pela aplicação.
+ *
+ * <p>
+ * Exemplos:
+ * </p>
+ * <ul>
+ * <li>Cursor de paginação malformado ou adulterado</li>
+ * <li>Combinação de parâmetros não suportada</li>
+ * </ul>
+ *
+ * <p>
+ * Retorna o status HTTP {@code 400 - Bad Request}.
+ * </p>
+ */
+public class InvalidRequestException extends BusinessException {
+
+  /**
+   * Constrói a exceção com a mensagem informada.
+   *
+   * @param message descrição do problema na requisição
+   */
+  public InvalidRequestException(String message) {
+    super(message, 400);
+  }
+}
@@ -0,0 +1,39 @@
+package com.albertsilva.cursomc.services.exceptions;
+
+/**
+ * Exceção lançada quando um cliente da API esgota a sua cota de
+ * requisições.
+ *
+ * <p>
+ * Retorna o status HTTP {@code 429 - Too Many Requests} com o cabeçalho
+ * {@code Retry-After}, indicando quando a próxima requisição do mesmo
+ * cliente será aceita.
+ * </p>
+ */
+public class RateLimitExceededException extends BusinessException {
+
+  /**
+   * Segundos até a cota permitir uma nova requisição.
+   */
+  private final long retryAfterSeconds;
+
+  /**
+   * Constrói a exceção com a mensagem e o intervalo de nova tentativa.
+   *
+   * @param message           descrição do limite excedido
+   * @param retryAfterSeconds segundos até uma nova tentativa
+   */
+  public RateLimitExceededException(String message, long retryAfterSeconds) {
+    super(message, 429);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Retorna o intervalo sugerido para nova tentativa.
+   *
+   * @return segundos até uma nova tentativa
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
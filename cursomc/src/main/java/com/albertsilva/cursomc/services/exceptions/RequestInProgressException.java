@@ -0,0 +1,23 @@
+package com.albertsilva.cursomc.services.exceptions;
+
+/**
+ * Exceção lançada quando uma requisição com a mesma
+ * {@code Idempotency-Key} ainda está sendo processada por outra instância
+ * da aplicação.
+ *
+ * <p>
+ * Retorna o status HTTP {@code 409 - Conflict}; o cliente deve repetir a
+ * requisição mais tarde para obter a resposta registrada.
+ * </p>
+ */
+public class RequestInProgressException extends BusinessException {
+
+  /**
+   * Constrói a exceção com a mensagem informada.
+   *
+   * @param message descrição da requisição em andamento
+   */
+  public RequestInProgressException(String message) {
+    super(message, 409);
+  }
+}
@@ -0,0 +1,39 @@
+package com.albertsilva.cursomc.services.exceptions;
+
+/**
+ * Exceção lançada quando uma requisição é recusada porque o recurso já
+ * atingiu o seu limite de requisições simultâneas.
+ *
+ * <p>
+ * Retorna o status HTTP {@code 503 - Service Unavailable} com o cabeçalho
+ * {@code Retry-After}; nada foi executado e a requisição pode ser
+ * repetida após o intervalo indicado.
+ * </p>
+ */
+public class ServiceOverloadedException extends BusinessException {
+
+  /**
+   * Segundos após os quais o cliente pode tentar novamente.
+   */
+  private final long retryAfterSeconds;
+
+  /**
+   * Constrói a exceção com a mensagem e o intervalo de nova tentativa.
+   *
+   * @param message           descrição da sobrecarga
+   * @param retryAfterSeconds segundos até uma nova tentativa
+   */
+  public ServiceOverloadedException(String message, long retryAfterSeconds) {
+    super(message, 503);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Retorna o intervalo sugerido para nova tentativa.
+   *
+   * @return segundos até uma nova tentativa
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,47 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Migração que cria as sequências usadas na geração de identificadores
+ * de {@code pedido}, {@code cliente}, {@code endereco} e {@code produto}.
+ *
+ * <p>
+ * Com {@code GenerationType.IDENTITY} o Hibernate precisa executar cada
+ * INSERT imediatamente para obter a chave, o que desativa o JDBC batching.
+ * Com sequências em pool (incremento 50), os identificadores são obtidos
+ * antecipadamente e os INSERTs do agregado são enviados em lote.
+ * </p>
+ *
+ * <p>
+ * A migração é escrita em Java porque o valor inicial de cada sequência
+ * depende dos dados já existentes ({@code max(id) + 1}), e esse cálculo
+ * não tem sintaxe comum entre PostgreSQL e H2. As colunas identity são
+ * removidas em {@code V32}, quando o valor padrão dos ids passa a ser a
+ * própria sequência.
+ * </p>
+ */
+public class V23__create_id_sequences extends BaseJavaMigration {
+
+  private static final int INCREMENTO = 50;
+
+  private static final String[] TABELAS = { "pedido", "cliente", "endereco", "produto" };
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      for (String tabela : TABELAS) {
+        long inicio;
+        try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + tabela)) {
+          rs.next();
+          inicio = rs.getLong(1);
+        }
+        statement.execute("create sequence " + tabela + "_seq start with " + inicio + " increment by " + INCREMENTO);
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package db.migration;
+
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Migração que remove as colunas identity de {@code pedido},
+ * {@code cliente}, {@code endereco} e {@code produto}, cujos ids passaram
+ * a ser gerados pelas sequências de V23.
+ *
+ * <p>
+ * Enquanto a identity existia, um INSERT sem id (dados iniciais, SQL
+ * manual) recebia o próximo valor da identity, que não conhece os blocos
+ * já reservados pelo Hibernate na sequência e acabaria colidindo com
+ * eles. O valor padrão passa a ser {@code nextval} da própria sequência:
+ * com o otimizador pooled-lo, um {@code nextval} externo reserva o bloco
+ * inteiro iniciado pelo valor obtido, e nenhum id se repete.
+ * </p>
+ *
+ * <p>
+ * Em Java porque a sintaxe difere: no PostgreSQL, {@code pedido} já foi
+ * recriada sem identity em V25 (por isso {@code if exists}), cláusula que
+ * o H2 não aceita.
+ * </p>
+ */
+public class V32__drop_identity_from_sequence_ids extends BaseJavaMigration {
+
+  private static final String[] TABELAS = { "pedido", "cliente", "endereco", "produto" };
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    boolean postgres = "PostgreSQL".equals(context.getConnection().getMetaData().getDatabaseProductName());
+
+    try (Statement statement = context.getConnection().createStatement()) {
+      for (String tabela : TABELAS) {
+        statement.execute("alter table " + tabela + " alter column id drop identity" + (postgres ? " if exists" : ""));
+        statement.execute("alter table " + tabela + " alter column id set default nextval('" + tabela + "_seq')");
+      }
+    }
+  }
+}
@@ -1,2 +1,2 @@
-INSERT INTO cliente (nome, email, cpf_ou_cnpj, tipo)
-VALUES ('Maria Silva', 'maria@gmail.com', '36378912377', 1);
+INSERT INTO cliente (id, nome, email, cpf_ou_cnpj, tipo)
+VALUES (1, 'Maria Silva', 'maria@gmail.com', '36378912377', 1);
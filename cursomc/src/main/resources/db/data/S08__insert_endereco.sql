@@ -1,9 +1,9 @@
 INSERT INTO endereco
-(logradouro, numero, complemento, bairro, cep, cliente_id, cidade_id)
+(id, logradouro, numero, complemento, bairro, cep, cliente_id, cidade_id)
 VALUES
-('Rua Flores', '300', 'Apto 303', 'Jardim', '38220834', 1, 1);
+(1, 'Rua Flores', '300', 'Apto 303', 'Jardim', '38220834', 1, 1);
 
 INSERT INTO endereco
-(logradouro, numero, complemento, bairro, cep, cliente_id, cidade_id)
+(id, logradouro, numero, complemento, bairro, cep, cliente_id, cidade_id)
 VALUES
-('Avenida Matos', '105', 'Sala 800', 'Centro', '38777012', 1, 2);
+(2, 'Avenida Matos', '105', 'Sala 800', 'Centro', '38777012', 1, 2);
@@ -1,2 +1,2 @@
-INSERT INTO pedido (instante, cliente_id, endereco_de_entrega_id)
-VALUES ('2017-09-30 10:30:00', 1, 1), ('2017-10-10 19:35:00', 1, 2);
+INSERT INTO pedido (id, instante, cliente_id, endereco_de_entrega_id)
+VALUES (1, '2017-09-30 10:30:00', 1, 1), (2, '2017-10-10 19:35:00', 1, 2);
@@ -0,0 +1,10 @@
+-- Os ids acima são explícitos: desde V32 as colunas id não têm mais identity
+-- e o valor padrão consome a sequência em pool. As sequências são então
+-- reposicionadas após o maior id de cada tabela, calculado a partir dos
+-- dados, para que os ids gerados pelo Hibernate não colidam com os inseridos.
+-- Sintaxe do H2 (RESTART WITH aceita expressão); no PostgreSQL estes scripts
+-- não são executados (spring.sql.init.mode=never no profile dev).
+ALTER SEQUENCE pedido_seq RESTART WITH (SELECT coalesce(max(id), 0) + 1 FROM pedido);
+ALTER SEQUENCE cliente_seq RESTART WITH (SELECT coalesce(max(id), 0) + 1 FROM cliente);
+ALTER SEQUENCE endereco_seq RESTART WITH (SELECT coalesce(max(id), 0) + 1 FROM endereco);
+ALTER SEQUENCE produto_seq RESTART WITH (SELECT coalesce(max(id), 0) + 1 FROM produto);
@@ -0,0 +1,36 @@
+-- Índices para as chaves estrangeiras e ordenações dos caminhos quentes.
+--
+-- O PostgreSQL não indexa automaticamente as colunas que referenciam
+-- outra tabela; sem estes índices, cada busca de pedidos/endereços por
+-- cliente, cada junção item -> produto e cada exclusão na tabela
+-- referenciada percorre a tabela filha inteira.
+
+-- pedido: busca por cliente e por endereço de entrega
+create index if not exists idx_pedido_cliente_id on pedido (cliente_id);
+create index if not exists idx_pedido_endereco_de_entrega_id on pedido (endereco_de_entrega_id);
+
+-- pedido: ordenação padrão da listagem e paginação por chave (instante, id)
+create index if not exists idx_pedido_instante_id on pedido (instante, id);
+
+-- item_pedido: a PK (pedido_id, produto_id) já atende buscas por pedido;
+-- este índice atende junções e exclusões a partir de produto
+create index if not exists idx_item_pedido_produto_id on item_pedido (produto_id);
+
+-- endereco: carregamento dos endereços de um cliente e junção com cidade
+create index if not exists idx_endereco_cliente_id on endereco (cliente_id);
+create index if not exists idx_endereco_cidade_id on endereco (cidade_id);
+
+-- telefone: coleção de telefones do cliente
+create index if not exists idx_telefone_cliente_id on telefone (cliente_id);
+
+-- cidade: cidades de um estado
+create index if not exists idx_cidade_estado_id on cidade (estado_id);
+
+-- produto_categoria: a tabela não possui PK; os dois índices compostos
+-- cobrem a junção nos dois sentidos sem acesso à tabela, e o único
+-- impede associações duplicadas
+create unique index if not exists uk_produto_categoria on produto_categoria (produto_id, categoria_id);
+create index if not exists idx_produto_categoria_categoria_produto on produto_categoria (categoria_id, produto_id);
+
+-- cliente: ordenação da listagem e paginação por chave (nome, id)
+create index if not exists idx_cliente_nome_id on cliente (nome, id);
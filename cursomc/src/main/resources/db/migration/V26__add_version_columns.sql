@@ -0,0 +1,6 @@
+-- Coluna de versão (bloqueio otimista) dos agregados expostos com ETag.
+-- Cada alteração incrementa a versão, que identifica a representação
+-- atual do recurso e permite responder 304 sem carregar o agregado.
+alter table categoria add column version integer default 0 not null;
+alter table cliente add column version integer default 0 not null;
+alter table pedido add column version integer default 0 not null;
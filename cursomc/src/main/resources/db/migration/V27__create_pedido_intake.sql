@@ -0,0 +1,13 @@
+create table pedido_intake (
+    id bigint generated by default as identity,
+    status integer not null,
+    payload text not null,
+    pedido_id integer,
+    erro varchar(500),
+    tentativas integer default 0 not null,
+    criado_em timestamp(6) not null,
+    atualizado_em timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_pedido_intake_status_id on pedido_intake (status, id);
@@ -0,0 +1,13 @@
+create table idempotency_key (
+    escopo varchar(50) not null,
+    chave varchar(255) not null,
+    request_hash varchar(64) not null,
+    status_code integer,
+    location varchar(500),
+    body text,
+    criado_em timestamp(6) not null,
+    expira_em timestamp(6) not null,
+    primary key (escopo, chave)
+);
+
+create index idx_idempotency_key_expira_em on idempotency_key (expira_em);
@@ -0,0 +1,4 @@
+-- Coluna de versão (bloqueio otimista) do pagamento. Alterações
+-- concorrentes no estado de um mesmo pagamento passam a ser detectadas
+-- na gravação, em vez de a última sobrescrever a anterior.
+alter table pagamento add column version integer default 0 not null;
@@ -0,0 +1,12 @@
+-- Estoque disponível por produto. Produtos sem linha nesta tabela não têm
+-- o estoque controlado. A quantidade é mantida em memória pela aplicação
+-- e gravada aqui em lotes periódicos (ver EstoqueService), de onde é
+-- recuperada na inicialização.
+create table estoque (
+    produto_id integer not null,
+    quantidade bigint not null,
+    atualizado_em timestamp(6) not null,
+    primary key (produto_id),
+    constraint fk_estoque_produto foreign key (produto_id) references produto (id),
+    constraint ck_estoque_quantidade check (quantidade >= 0)
+);
@@ -0,0 +1,12 @@
+-- Outbox transacional: eventos de pedido gravados na mesma transação da
+-- alteração que os origina e publicados depois pelo OutboxRelay. Linhas
+-- publicadas são removidas; o que permanece na tabela é o atraso do relay.
+create table outbox_evento (
+    id bigint generated by default as identity,
+    tipo varchar(60) not null,
+    agregado varchar(30) not null,
+    agregado_id varchar(60) not null,
+    payload text not null,
+    criado_em timestamp(6) not null,
+    primary key (id)
+);
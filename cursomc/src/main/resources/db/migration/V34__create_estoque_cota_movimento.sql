@@ -0,0 +1,33 @@
+-- Divisão do estoque entre instâncias da aplicação (ver EstoqueService).
+--
+-- estoque.quantidade passa a ser o saldo ainda não distribuído. Cada
+-- instância retira dele blocos para a sua cota (estoque_cota), dentro da
+-- qual reserva em memória; como a retirada é condicional ao saldo, a soma
+-- das cotas nunca excede o estoque, e duas instâncias não vendem a mesma
+-- unidade.
+--
+-- Cada reserva ou liberação grava uma linha em estoque_movimento na mesma
+-- transação do pedido. A gravação periódica consolida os movimentos na
+-- cota; na inicialização, o disponível de cada instância é a cota somada
+-- aos movimentos ainda não consolidados.
+
+create table estoque_cota (
+    instancia varchar(64) not null,
+    produto_id integer not null,
+    quantidade bigint not null,
+    atualizado_em timestamp(6) not null,
+    primary key (instancia, produto_id),
+    constraint fk_estoque_cota_produto foreign key (produto_id) references produto (id),
+    constraint ck_estoque_cota_quantidade check (quantidade >= 0)
+);
+
+create table estoque_movimento (
+    id bigint generated by default as identity,
+    instancia varchar(64) not null,
+    produto_id integer not null,
+    variacao bigint not null,
+    criado_em timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_estoque_movimento_instancia on estoque_movimento (instancia, id);
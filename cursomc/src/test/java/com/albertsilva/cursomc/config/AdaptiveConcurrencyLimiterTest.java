@@ -0,0 +1,73 @@
+package com.albertsilva.cursomc.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long MS = 1_000_000L;
+
+	@Test
+	void tryAcquireShouldReserveHeadroomForHigherPriorities() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2);
+
+		for (int i = 1; i <= 5; i++) {
+			assertEquals(i, limiter.tryAcquire(0.5));
+		}
+		assertEquals(-1, limiter.tryAcquire(0.5));
+
+		for (int i = 6; i <= 10; i++) {
+			assertEquals(i, limiter.tryAcquire(1.0));
+		}
+		assertEquals(-1, limiter.tryAcquire(1.0));
+		assertEquals(10, limiter.getInFlight());
+	}
+
+	@Test
+	void limitShouldGrowWhileLatencyIsStableAndShrinkWhenItRises() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, 0.2);
+
+		saturate(limiter, 10 * MS, 50);
+		int estavel = limiter.getLimit();
+		assertTrue(estavel > 20, "limite: " + estavel);
+
+		saturate(limiter, 100 * MS, 1);
+		int lento = limiter.getLimit();
+		assertTrue(lento < estavel / 2, "limite: " + lento);
+		assertTrue(lento >= 4);
+	}
+
+	@Test
+	void idleSamplesShouldNotChangeLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, 0.2);
+
+		for (int i = 0; i < 50; i++) {
+			int emUso = limiter.tryAcquire(1.0);
+			limiter.release(i < 25 ? 10 * MS : 500 * MS, emUso);
+		}
+
+		assertEquals(20, limiter.getLimit());
+	}
+
+	/**
+	 * Ocupa todo o limite e libera as requisições com a latência informada,
+	 * repetindo a quantidade de rodadas pedida.
+	 */
+	private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rodadas) {
+		for (int r = 0; r < rodadas; r++) {
+			int emUso = 0;
+			int admitidas = 0;
+			int atual;
+			while ((atual = limiter.tryAcquire(1.0)) > 0) {
+				emUso = atual;
+				admitidas++;
+			}
+			for (int i = 0; i < admitidas; i++) {
+				limiter.release(rttNanos, emUso);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.albertsilva.cursomc.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class RateLimitFilterTest {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("handlerExceptionResolver")
+	private HandlerExceptionResolver exceptionResolver;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		Duration hora = Duration.ofHours(1);
+		RateLimitFilter filter = new RateLimitFilter(new RateLimitFilter.Plan(2, hora),
+				new RateLimitFilter.Plan(1, hora), Map.of("parceiro", new RateLimitFilter.Plan(3, hora)),
+				100, Duration.ofMinutes(10), exceptionResolver, registry);
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(filter).build();
+	}
+
+	@Test
+	void requestsAboveQuotaShouldReceiveTooManyRequests() throws Exception {
+		mockMvc.perform(get("/categorias"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("RateLimit-Limit", "2"))
+				.andExpect(header().string("RateLimit-Remaining", "1"))
+				.andExpect(header().string("RateLimit-Policy", "2;w=3600"));
+		mockMvc.perform(get("/categorias"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("RateLimit-Remaining", "0"));
+
+		MockHttpServletResponse recusa = mockMvc.perform(get("/categorias"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("RateLimit-Remaining", "0"))
+				.andExpect(jsonPath("$.title").value("Too many requests"))
+				.andReturn().getResponse();
+
+		long retryAfter = Long.parseLong(recusa.getHeader(HttpHeaders.RETRY_AFTER));
+		long reset = Long.parseLong(recusa.getHeader("RateLimit-Reset"));
+		assertTrue(retryAfter > 1790 && retryAfter <= 1800, "Retry-After: " + retryAfter);
+		assertTrue(reset > 3590 && reset <= 3600, "RateLimit-Reset: " + reset);
+	}
+
+	@Test
+	void apiKeysShouldHaveSeparateBuckets() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/categorias").header(RateLimitFilter.API_KEY_HEADER, "parceiro"))
+					.andExpect(status().isOk())
+					.andExpect(header().string("RateLimit-Limit", "3"));
+		}
+		mockMvc.perform(get("/categorias").header(RateLimitFilter.API_KEY_HEADER, "parceiro"))
+				.andExpect(status().isTooManyRequests());
+
+		mockMvc.perform(get("/categorias").header(RateLimitFilter.API_KEY_HEADER, "desconhecida"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("RateLimit-Limit", "2"));
+	}
+
+	@Test
+	void clientePathsShouldAddToCallerQuotaWithoutBlockingOtherCallers() throws Exception {
+		mockMvc.perform(get("/clientes/1").with(origem("10.0.0.1")))
+				.andExpect(status().isOk())
+				.andExpect(header().string("RateLimit-Limit", "1"))
+				.andExpect(header().string("RateLimit-Remaining", "0"));
+		mockMvc.perform(get("/clientes/1").with(origem("10.0.0.1")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("RateLimit-Limit", "1"));
+
+		mockMvc.perform(get("/clientes/1").with(origem("10.0.0.2")))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/clientes/2").with(origem("10.0.0.1")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("RateLimit-Limit", "2"));
+	}
+
+	private static RequestPostProcessor origem(String endereco) {
+		return request -> {
+			request.setRemoteAddr(endereco);
+			return request;
+		};
+	}
+
+}
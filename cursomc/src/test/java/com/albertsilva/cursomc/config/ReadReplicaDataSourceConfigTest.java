@@ -0,0 +1,62 @@
+package com.albertsilva.cursomc.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.services.ClienteService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Usa um banco H2 próprio ({@code routingdb}) como primária e um segundo
+ * pool sobre o mesmo banco como réplica, verificando de qual pool cada
+ * transação retira sua conexão.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routingdb",
+		"cursomc.datasource.replica.enabled=true",
+		"cursomc.datasource.replica.pool.jdbc-url=jdbc:h2:mem:routingdb",
+		"cursomc.datasource.replica.pool.username=sa" })
+class ReadReplicaDataSourceConfigTest {
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private HikariDataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private HikariDataSource replica;
+
+	@Test
+	void readOnlyTransactionsShouldUseReplicaPool() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		readOnly.executeWithoutResult(status -> {
+			clienteService.findById(1);
+			assertEquals(1, replica.getHikariPoolMXBean().getActiveConnections());
+			assertEquals(0, primary.getHikariPoolMXBean().getActiveConnections());
+		});
+	}
+
+	@Test
+	void readWriteTransactionsShouldUsePrimaryPool() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			clienteService.findById(1);
+			assertEquals(1, primary.getHikariPoolMXBean().getActiveConnections());
+			assertEquals(0, replica.getHikariPoolMXBean().getActiveConnections());
+		});
+	}
+
+}
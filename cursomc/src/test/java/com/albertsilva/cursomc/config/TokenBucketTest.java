@@ -0,0 +1,70 @@
+package com.albertsilva.cursomc.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	private static final long S = 1_000_000_000L;
+
+	@Test
+	void tryConsumeShouldAllowBurstUpToCapacityThenRefillAtSteadyRate() {
+		TokenBucket bucket = new TokenBucket(3, Duration.ofSeconds(3), 0);
+
+		assertEquals(2, bucket.tryConsume(0).restantes());
+		assertEquals(1, bucket.tryConsume(0).restantes());
+		assertEquals(0, bucket.tryConsume(0).restantes());
+
+		TokenBucket.Consumo recusado = bucket.tryConsume(0);
+		assertFalse(recusado.permitido());
+		assertEquals(S, recusado.retryAfterNanos());
+		assertEquals(3 * S, recusado.cheioEmNanos());
+
+		assertFalse(bucket.tryConsume(S - 1).permitido());
+		assertTrue(bucket.tryConsume(S).permitido());
+		assertFalse(bucket.tryConsume(S).permitido());
+
+		TokenBucket.Consumo ocioso = bucket.tryConsume(100 * S);
+		assertTrue(ocioso.permitido());
+		assertEquals(2, ocioso.restantes());
+	}
+
+	@Test
+	void concurrentConsumersShouldNeverExceedCapacity() throws Exception {
+		TokenBucket bucket = new TokenBucket(1000, Duration.ofDays(1), 0);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Integer>> tarefas = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tarefas.add(() -> {
+					int permitidos = 0;
+					for (int i = 0; i < 500; i++) {
+						if (bucket.tryConsume(0).permitido()) {
+							permitidos++;
+						}
+					}
+					return permitidos;
+				});
+			}
+			int total = 0;
+			for (Future<Integer> resultado : executor.invokeAll(tarefas)) {
+				total += resultado.get();
+			}
+			assertEquals(1000, total);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
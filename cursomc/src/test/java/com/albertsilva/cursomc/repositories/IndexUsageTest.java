@@ -0,0 +1,82 @@
+package com.albertsilva.cursomc.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Verifica, via EXPLAIN, que as consultas dos caminhos quentes usam os
+ * índices criados em V24 sobre uma massa de dados gerada.
+ *
+ * <p>
+ * A massa é criada dentro da transação do teste e descartada no rollback,
+ * de modo que a verificação é repetível e não afeta os demais testes. O
+ * H2 também indexa chaves estrangeiras implicitamente; por isso as buscas
+ * por FK verificam apenas a ausência de varredura completa, enquanto as
+ * ordenações verificam que a leitura segue a ordem do índice.
+ * </p>
+ */
+@SpringBootTest
+@Transactional
+class IndexUsageTest {
+
+	private static final int BASE = 1_000_000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void generateDataset() {
+		jdbcTemplate.update("insert into produto (id, nome, preco) select ? + x, 'Produto ' || x, 10.0 from system_range(1, 1000)", BASE);
+		jdbcTemplate.update("insert into produto_categoria (produto_id, categoria_id) select ? + x, 1 + mod(x, 20) from system_range(1, 1000)", BASE);
+		jdbcTemplate.update("insert into cliente (id, tipo, cpf_ou_cnpj, email, nome) select ? + x, 1, 'doc' || x, 'c' || x || '@mail.com', 'Cliente ' || mod(x * 7919, 5000) from system_range(1, 5000)", BASE);
+		jdbcTemplate.update("insert into endereco (id, cliente_id, cidade_id, logradouro) select ? + x, ? + 1 + mod(x, 5000), 1 + mod(x, 10), 'Rua ' || x from system_range(1, 10000)", BASE, BASE);
+		jdbcTemplate.update("insert into telefone (cliente_id, telefones) select ? + 1 + mod(x, 5000), 'tel' || x from system_range(1, 10000)", BASE);
+		jdbcTemplate.update("insert into pedido (id, cliente_id, endereco_de_entrega_id, instante) select ? + x, ? + 1 + mod(x, 5000), ? + 1 + mod(x, 10000), dateadd(minute, x, timestamp '2020-01-01 00:00:00') from system_range(1, 20000)", BASE, BASE, BASE);
+		jdbcTemplate.update("insert into item_pedido (pedido_id, produto_id, quantidade, preco, desconto) select ? + 1 + mod(x, 20000), ? + 1 + mod(x + x / 20000, 1000), 1, 10.0, 0.0 from system_range(1, 40000)", BASE, BASE);
+	}
+
+	@Test
+	void lookupsByForeignKeyShouldUseIndexSeek() {
+		assertIndexSeek("select id from pedido where cliente_id = 1000010");
+		assertIndexSeek("select id from pedido where endereco_de_entrega_id = 1000010");
+		assertIndexSeek("select pedido_id from item_pedido where produto_id = 1000010");
+		assertIndexSeek("select id from endereco where cliente_id = 1000010");
+		assertIndexSeek("select id from endereco where cidade_id = 1");
+		assertIndexSeek("select telefones from telefone where cliente_id = 1000010");
+		assertIndexSeek("select id from cidade where estado_id = 1");
+		assertIndexSeek("select produto_id from produto_categoria where categoria_id = 3");
+		assertIndexSeek("select categoria_id from produto_categoria where produto_id = 1000010");
+	}
+
+	@Test
+	void sortedListingsShouldReadIndexInOrder() {
+		assertIndexSorted("select id from pedido order by instante, id limit 21");
+		assertIndexSorted("select id from pedido where (instante, id) > (timestamp '2020-01-20 00:00:00', 1000100)"
+				+ " order by instante, id limit 21");
+		assertIndexSorted("select id from cliente order by nome, id limit 21");
+		assertIndexSorted("select id from cliente where (nome, id) > ('Cliente 2500', 0) order by nome, id limit 21");
+	}
+
+	private void assertIndexSeek(String sql) {
+		String plan = explain(sql);
+		assertFalse(plan.contains("tableScan"), () -> "Consulta sem índice: " + plan);
+	}
+
+	private void assertIndexSorted(String sql) {
+		String plan = explain(sql);
+		assertFalse(plan.contains("tableScan"), () -> "Consulta sem índice: " + plan);
+		assertTrue(plan.contains("index sorted"), () -> "Ordenação fora do índice: " + plan);
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class);
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.albertsilva.cursomc.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.domain.Produto;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class ProdutoRepositoryTest {
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void produtoAndCategoriasShouldBeServedFromSecondLevelCacheAcrossTransactions() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		loadProdutoWithCategorias();
+		long consultasAquecimento = statistics.getPrepareStatementCount();
+
+		loadProdutoWithCategorias();
+
+		assertEquals(consultasAquecimento, statistics.getPrepareStatementCount());
+		assertEquals(1, statistics.getDomainDataRegionStatistics("produto").getHitCount());
+		assertEquals(1, statistics.getDomainDataRegionStatistics("produto-categorias").getHitCount());
+	}
+
+	private void loadProdutoWithCategorias() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Produto produto = produtoRepository.findById(1).orElseThrow();
+			assertTrue(produto.getCategorias().size() > 0);
+		});
+	}
+
+}
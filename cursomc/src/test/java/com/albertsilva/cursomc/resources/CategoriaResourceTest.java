@@ -0,0 +1,86 @@
+package com.albertsilva.cursomc.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.albertsilva.cursomc.dto.categoria.request.CategoriaInsertRequest;
+import com.albertsilva.cursomc.services.CategoriaService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class CategoriaResourceTest {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private CategoriaService categoriaService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private MockMvc mockMvc;
+
+	private Integer categoriaId;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		categoriaId = categoriaService.insert(new CategoriaInsertRequest("Camping")).id();
+	}
+
+	@AfterEach
+	void tearDown() {
+		categoriaService.delete(categoriaId);
+	}
+
+	@Test
+	void cachedCategoriaShouldAnswerConditionalGetWithoutQueries() throws Exception {
+		String eTag = mockMvc.perform(get("/categorias/{id}", categoriaId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").doesNotExist())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		mockMvc.perform(get("/categorias/{id}", categoriaId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/categorias/{id}", categoriaId))
+				.andExpect(status().isOk());
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void updateShouldChangeETag() throws Exception {
+		String eTag = mockMvc.perform(get("/categorias/{id}", categoriaId))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		categoriaService.update(categoriaId, new CategoriaInsertRequest("Trilhas"));
+
+		String novoETag = mockMvc.perform(get("/categorias/{id}", categoriaId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nome").value("Trilhas"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(eTag, novoETag);
+	}
+
+}
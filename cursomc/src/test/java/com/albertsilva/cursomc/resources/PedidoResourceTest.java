@@ -0,0 +1,192 @@
+package com.albertsilva.cursomc.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.albertsilva.cursomc.config.AdaptiveConcurrencyLimiter;
+import com.albertsilva.cursomc.config.ConcurrencyLimitInterceptor;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.update.ItemPedidoUpdateRequest;
+import com.albertsilva.cursomc.dto.pedido.update.PedidoUpdateRequest;
+import com.albertsilva.cursomc.services.IdempotencyService;
+import com.albertsilva.cursomc.services.PedidoService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class PedidoResourceTest {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+	private MockMvc mockMvc;
+
+	private Integer pedidoId;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		pedidoId = pedidoService.insert(new PedidoInsertRequest(1, 1, 2, null, Set.of(new ItemPedidoRequest(1, 1)))).id();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pedidoService.delete(pedidoId);
+	}
+
+	@Test
+	void findByIdShouldAnswerNotModifiedFromVersionOnly() throws Exception {
+		String eTag = mockMvc.perform(get("/pedidos/{id}", pedidoId))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		mockMvc.perform(get("/pedidos/{id}", pedidoId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void findByIdShouldChangeETagWhenOnlyItensChange() throws Exception {
+		String eTag = mockMvc.perform(get("/pedidos/{id}", pedidoId))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		pedidoService.update(pedidoId, new PedidoUpdateRequest(1, 1, 1, Set.of(new ItemPedidoUpdateRequest(1, 5))));
+
+		String novoETag = mockMvc.perform(get("/pedidos/{id}", pedidoId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertNotEquals(eTag, novoETag);
+	}
+
+	@Test
+	void findByIdShouldServeSettledPedidoFromEncodedBytes() throws Exception {
+		pedidoService.update(pedidoId, new PedidoUpdateRequest(1, 1, 2, Set.of(new ItemPedidoUpdateRequest(1, 1))));
+
+		byte[] gzip = mockMvc.perform(get("/pedidos/{id}", pedidoId).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		String json = mockMvc.perform(get("/pedidos/{id}", pedidoId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.estadoPagamento").value("QUITADO"))
+				.andReturn().getResponse().getContentAsString();
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			assertEquals(json, new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+		}
+
+		pedidoService.update(pedidoId, new PedidoUpdateRequest(1, 1, 2, Set.of(new ItemPedidoUpdateRequest(1, 3))));
+
+		mockMvc.perform(get("/pedidos/{id}", pedidoId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens[0].quantidade").value(3));
+	}
+
+	@Test
+	void insertShouldNotDuplicatePedidoWhenRetriedWithSameIdempotencyKey() throws Exception {
+		String corpo = """
+				{"clienteId": 1, "enderecoEntregaId": 1, "tipoPagamento": 2, "itens": [{"produtoId": 2, "quantidade": 1}]}
+				""";
+
+		String location = mockMvc.perform(post("/pedidos").header(IdempotencyService.HEADER, "retry-123")
+				.contentType(MediaType.APPLICATION_JSON).content(corpo))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+		try {
+			mockMvc.perform(post("/pedidos").header(IdempotencyService.HEADER, "retry-123")
+					.contentType(MediaType.APPLICATION_JSON).content(corpo))
+					.andExpect(status().isCreated())
+					.andExpect(header().string(HttpHeaders.LOCATION, location))
+					.andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+
+			mockMvc.perform(post("/pedidos").header(IdempotencyService.HEADER, "retry-123")
+					.contentType(MediaType.APPLICATION_JSON).content(corpo.replace("\"quantidade\": 1", "\"quantidade\": 2")))
+					.andExpect(status().isUnprocessableContent());
+		} finally {
+			pedidoService.delete(Integer.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+			jdbcTemplate.update("delete from idempotency_key where chave = ?", "retry-123");
+		}
+	}
+
+	@Test
+	void saturatedLimitShouldShedListingsBeforeOrderPlacement() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = concurrencyLimitInterceptor.limiter("PedidoResource.findAllPaged");
+		int ocupadas = 0;
+		while (limiter.tryAcquire(0.5) > 0) {
+			ocupadas++;
+		}
+
+		try {
+			mockMvc.perform(get("/pedidos"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+					.andExpect(jsonPath("$.title").value("Service unavailable"));
+
+			String corpo = """
+					{"clienteId": 1, "enderecoEntregaId": 1, "tipoPagamento": 2, "itens": [{"produtoId": 1, "quantidade": 1}]}
+					""";
+			String location = mockMvc.perform(post("/pedidos").contentType(MediaType.APPLICATION_JSON).content(corpo))
+					.andExpect(status().isCreated())
+					.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+			pedidoService.delete(Integer.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+		} finally {
+			for (int i = 0; i < ocupadas; i++) {
+				limiter.release(0, 0);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.albertsilva.cursomc.dto.categoria.request.CategoriaInsertRequest;
+import com.albertsilva.cursomc.dto.categoria.response.CategoriaResponse;
+
+@SpringBootTest
+class CategoriaServiceTest {
+
+	@Autowired
+	private CategoriaService categoriaService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private final List<Integer> criadas = new ArrayList<>();
+
+	private Integer categoriaId;
+
+	@BeforeEach
+	void setUp() {
+		categoriaId = categoriaService.insert(new CategoriaInsertRequest("Jardinagem")).id();
+		criadas.add(categoriaId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		criadas.forEach(categoriaService::delete);
+		criadas.clear();
+	}
+
+	@Test
+	void findByIdShouldBeServedFromCacheUntilUpdated() {
+		CategoriaResponse primeira = categoriaService.findById(categoriaId);
+		assertSame(primeira, categoriaService.findById(categoriaId));
+
+		categoriaService.update(categoriaId, new CategoriaInsertRequest("Paisagismo"));
+
+		assertEquals("Paisagismo", categoriaService.findById(categoriaId).nome());
+	}
+
+	@Test
+	void findAllPagedShouldBeInvalidatedByInsert() {
+		PageRequest pageable = PageRequest.of(0, 5);
+		Page<CategoriaResponse> primeira = categoriaService.findAllPaged(pageable);
+		assertSame(primeira, categoriaService.findAllPaged(pageable));
+
+		criadas.add(categoriaService.insert(new CategoriaInsertRequest("Ferramentas")).id());
+
+		Page<CategoriaResponse> atualizada = categoriaService.findAllPaged(pageable);
+		assertNotSame(primeira, atualizada);
+		assertEquals(primeira.getTotalElements() + 1, atualizada.getTotalElements());
+	}
+
+	@Test
+	void findByIdShouldCoalesceConcurrentMisses() throws Exception {
+		CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CategoriaService.CACHE_CATEGORIAS);
+		cache.evict(categoriaId);
+		long cargasAntes = cache.getNativeCache().stats().loadCount();
+
+		int threads = 8;
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<CategoriaResponse>> respostas = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				respostas.add(executor.submit(() -> {
+					largada.await();
+					return categoriaService.findById(categoriaId);
+				}));
+			}
+			largada.countDown();
+
+			CategoriaResponse esperada = respostas.get(0).get();
+			for (Future<CategoriaResponse> resposta : respostas) {
+				assertSame(esperada, resposta.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(1, cache.getNativeCache().stats().loadCount() - cargasAntes);
+	}
+
+}
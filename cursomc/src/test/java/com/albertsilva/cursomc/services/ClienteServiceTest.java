@@ -0,0 +1,59 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.albertsilva.cursomc.dto.cliente.request.ClienteInsertRequest;
+import com.albertsilva.cursomc.dto.cliente.response.ClienteResponse;
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class ClienteServiceTest {
+
+	@Autowired
+	private ClienteService clienteService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void findAllPagedShouldLoadCollectionsInBatchedQueries() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		Page<ClienteResponse> page = clienteService.findAllPaged(PageRequest.of(0, 20, Sort.by("nome")));
+
+		ClienteResponse maria = page.getContent().get(0);
+		assertEquals(2, maria.enderecos().size());
+		assertEquals(2, maria.telefones().size());
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void insertShouldRejectUnknownCidadeWithoutQueryingDatabase() {
+		ClienteInsertRequest dto = new ClienteInsertRequest("João Souza", "joao@gmail.com", "12345678900", 1,
+				"Rua A", "10", null, "Centro", "38220834", 999, Set.of("27363323"));
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		assertThrows(ObjectNotFoundException.class, () -> clienteService.insert(dto));
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.domain.Produto;
+import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.update.ItemPedidoUpdateRequest;
+import com.albertsilva.cursomc.dto.pedido.update.PedidoUpdateRequest;
+import com.albertsilva.cursomc.repositories.ProdutoRepository;
+import com.albertsilva.cursomc.services.exceptions.EstoqueInsuficienteException;
+
+@SpringBootTest
+class EstoqueServiceTest {
+
+	@Autowired
+	private EstoqueService estoqueService;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${cursomc.estoque.instance}")
+	private String instancia;
+
+	private Integer produtoId;
+
+	private final List<Integer> criados = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		produtoId = produtoRepository.save(new Produto(null, "Produto com estoque", 10.0)).getId();
+		estoqueService.repor(produtoId, 5);
+	}
+
+	@AfterEach
+	void tearDown() {
+		criados.forEach(pedidoService::delete);
+		criados.clear();
+		estoqueService.flush();
+		jdbcTemplate.update("delete from estoque_movimento where produto_id = ?", produtoId);
+		jdbcTemplate.update("delete from estoque_cota where produto_id = ?", produtoId);
+		jdbcTemplate.update("delete from estoque where produto_id = ?", produtoId);
+		produtoRepository.deleteById(produtoId);
+	}
+
+	@Test
+	void insertShouldReserveStockAndCancelShouldReleaseIt() {
+		Integer pedidoId = pedidoService.insert(pedido(3)).id();
+		criados.add(pedidoId);
+
+		assertEquals(2, estoqueService.findDisponivel(produtoId).getAsLong());
+		assertThrows(EstoqueInsuficienteException.class, () -> pedidoService.insert(pedido(3)));
+		assertEquals(2, estoqueService.findDisponivel(produtoId).getAsLong());
+
+		pedidoService.update(pedidoId, new PedidoUpdateRequest(1, 1, EstadoPagamento.CANCELADO.getCod(),
+				Set.of(new ItemPedidoUpdateRequest(produtoId, 3))));
+
+		assertEquals(5, estoqueService.findDisponivel(produtoId).getAsLong());
+
+		estoqueService.flush();
+		assertEquals(5L, jdbcTemplate.queryForObject("select (select quantidade from estoque where produto_id = ?)"
+				+ " + (select coalesce(sum(quantidade), 0) from estoque_cota where produto_id = ?)",
+				Long.class, produtoId, produtoId));
+		assertEquals(0, jdbcTemplate.queryForObject("select count(*) from estoque_movimento where produto_id = ?",
+				Integer.class, produtoId));
+	}
+
+	@Test
+	void restartShouldRecoverReservationsNotYetFlushed() {
+		estoqueService.reservar(Map.of(produtoId, 2));
+
+		EstoqueService reiniciado = new EstoqueService(jdbcTemplate, transactionManager, 8, instancia, 50);
+
+		assertEquals(3, reiniciado.findDisponivel(produtoId).getAsLong());
+	}
+
+	@Test
+	void instancesShouldNotSellTheSameUnits() {
+		estoqueService.reservar(Map.of(produtoId, 1));
+		EstoqueService outraInstancia = new EstoqueService(jdbcTemplate, transactionManager, 8, "outra", 50);
+
+		assertEquals(0, outraInstancia.findDisponivel(produtoId).getAsLong());
+		assertThrows(EstoqueInsuficienteException.class, () -> outraInstancia.reservar(Map.of(produtoId, 1)));
+
+		estoqueService.devolverCotas();
+
+		outraInstancia.reservar(Map.of(produtoId, 4));
+		assertEquals(0, outraInstancia.findDisponivel(produtoId).getAsLong());
+		outraInstancia.liberar(Map.of(produtoId, 4));
+		outraInstancia.devolverCotas();
+		estoqueService.liberar(Map.of(produtoId, 1));
+	}
+
+	@Test
+	void flushShouldTakeQuotaAheadOfDemand() {
+		EstoqueService outraInstancia = new EstoqueService(jdbcTemplate, transactionManager, 8, "outra", 2);
+		outraInstancia.recover();
+		estoqueService.devolverCotas();
+
+		outraInstancia.reservar(Map.of(produtoId, 2));
+		assertEquals(3L, jdbcTemplate.queryForObject("select quantidade from estoque where produto_id = ?",
+				Long.class, produtoId));
+
+		outraInstancia.flush();
+
+		assertEquals(1L, jdbcTemplate.queryForObject("select quantidade from estoque where produto_id = ?",
+				Long.class, produtoId));
+		assertEquals(2L, jdbcTemplate.queryForObject(
+				"select quantidade from estoque_cota where instancia = ? and produto_id = ?", Long.class, "outra",
+				produtoId));
+		assertEquals(3, outraInstancia.findDisponivel(produtoId).getAsLong());
+
+		outraInstancia.liberar(Map.of(produtoId, 2));
+		outraInstancia.devolverCotas();
+	}
+
+	@Test
+	void rolledBackReservationShouldReturnQuotaTakenInItsTransaction() {
+		EstoqueService outraInstancia = new EstoqueService(jdbcTemplate, transactionManager, 8, "outra", 50);
+		outraInstancia.recover();
+		estoqueService.devolverCotas();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			outraInstancia.reservar(Map.of(produtoId, 2));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(5, outraInstancia.findDisponivel(produtoId).getAsLong());
+		assertEquals(5L, jdbcTemplate.queryForObject("select quantidade from estoque where produto_id = ?",
+				Long.class, produtoId));
+	}
+
+	@Test
+	void concurrentReservationsShouldNeverOversell() throws Exception {
+		estoqueService.repor(produtoId, 995);
+		AtomicInteger aceitas = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				tarefas.add(executor.submit(() -> {
+					for (int j = 0; j < 200; j++) {
+						try {
+							estoqueService.reservar(Map.of(produtoId, 1 + j % 3));
+							aceitas.addAndGet(1 + j % 3);
+						} catch (EstoqueInsuficienteException e) {
+							// esgotado
+						}
+					}
+				}));
+			}
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		long disponivel = estoqueService.findDisponivel(produtoId).getAsLong();
+		assertEquals(1000, aceitas.get() + disponivel);
+		assertEquals(0, disponivel, 2);
+	}
+
+	private PedidoInsertRequest pedido(int quantidade) {
+		return new PedidoInsertRequest(1, 1, 2, null, Set.of(new ItemPedidoRequest(produtoId, quantidade)));
+	}
+
+}
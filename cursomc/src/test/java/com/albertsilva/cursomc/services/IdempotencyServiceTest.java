@@ -0,0 +1,157 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.albertsilva.cursomc.dto.categoria.request.CategoriaInsertRequest;
+import com.albertsilva.cursomc.dto.categoria.response.CategoriaResponse;
+import com.albertsilva.cursomc.services.exceptions.IdempotencyKeyMismatchException;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+	private static final String ESCOPO = "teste";
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final AtomicInteger execucoes = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("delete from idempotency_key where escopo = ?", ESCOPO);
+	}
+
+	@Test
+	void executeShouldReplayStoredResponseWithoutRunningAgain() {
+		String chave = UUID.randomUUID().toString();
+		CategoriaInsertRequest request = new CategoriaInsertRequest("Jardinagem");
+
+		ResponseEntity<CategoriaResponse> original = execute(chave, request);
+		ResponseEntity<CategoriaResponse> repetida = execute(chave, request);
+
+		assertEquals(1, execucoes.get());
+		assertEquals(201, repetida.getStatusCode().value());
+		assertEquals(original.getBody(), repetida.getBody());
+		assertEquals(original.getHeaders().getLocation(), repetida.getHeaders().getLocation());
+		assertEquals("true", repetida.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+		assertNull(original.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+	}
+
+	@Test
+	void executeShouldRejectKeyReusedWithDifferentRequest() {
+		String chave = UUID.randomUUID().toString();
+		execute(chave, new CategoriaInsertRequest("Jardinagem"));
+
+		assertThrows(IdempotencyKeyMismatchException.class, () -> execute(chave, new CategoriaInsertRequest("Pesca")));
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void executeShouldMakeConcurrentDuplicatesWaitForFirstExecution() throws Exception {
+		String chave = UUID.randomUUID().toString();
+		CategoriaInsertRequest request = new CategoriaInsertRequest("Jardinagem");
+		CountDownLatch largada = new CountDownLatch(1);
+
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<ResponseEntity<CategoriaResponse>>> respostas = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				respostas.add(executor.submit(() -> {
+					largada.await();
+					return execute(chave, request);
+				}));
+			}
+			largada.countDown();
+
+			for (Future<ResponseEntity<CategoriaResponse>> resposta : respostas) {
+				assertEquals(50, resposta.get(10, TimeUnit.SECONDS).getBody().id());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void executeShouldAllowRetryAfterFailure() {
+		String chave = UUID.randomUUID().toString();
+		CategoriaInsertRequest request = new CategoriaInsertRequest("Jardinagem");
+
+		assertThrows(IllegalStateException.class, () -> idempotencyService.execute(ESCOPO, chave, request,
+				CategoriaResponse.class, () -> {
+					throw new IllegalStateException("falha temporária");
+				}));
+
+		assertEquals(201, execute(chave, request).getStatusCode().value());
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void executeShouldRollBackOperationWhenResponseCannotBeRecorded() {
+		String chave = UUID.randomUUID().toString();
+		String efeito = UUID.randomUUID().toString();
+
+		assertThrows(RuntimeException.class, () -> idempotencyService.execute(ESCOPO, chave,
+				new CategoriaInsertRequest("Jardinagem"), Object.class, () -> {
+					jdbcTemplate.update("insert into idempotency_key (escopo, chave, request_hash, criado_em, expira_em)"
+							+ " values (?, ?, 'x', current_timestamp, current_timestamp)", ESCOPO, efeito);
+					return ResponseEntity.ok(new CorpoIlegivel());
+				}));
+
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"select count(*) from idempotency_key where escopo = ? and chave in (?, ?)", Integer.class,
+				ESCOPO, chave, efeito));
+	}
+
+	private ResponseEntity<CategoriaResponse> execute(String chave, CategoriaInsertRequest request) {
+		return idempotencyService.execute(ESCOPO, chave, request, CategoriaResponse.class, () -> {
+			execucoes.incrementAndGet();
+			sleep();
+			return ResponseEntity.created(URI.create("/categorias/50")).body(new CategoriaResponse(50, request.nome(), null));
+		});
+	}
+
+	/**
+	 * Corpo cuja serialização falha, impedindo o registro da resposta.
+	 */
+	static class CorpoIlegivel {
+
+		public String getValor() {
+			throw new IllegalStateException("corpo ilegível");
+		}
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(100);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.update.ItemPedidoUpdateRequest;
+import com.albertsilva.cursomc.dto.pedido.update.PedidoUpdateRequest;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private InMemoryOutboxSink sink;
+
+	private final List<Integer> criados = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		criados.forEach(pedidoService::delete);
+		criados.clear();
+	}
+
+	@Test
+	void relayShouldPublishPedidoAndPagamentoEventsInOrder() throws InterruptedException {
+		Integer id = pedidoService.insert(new PedidoInsertRequest(1, 1, 2, null,
+				Set.of(new ItemPedidoRequest(1, 2)))).id();
+		criados.add(id);
+
+		pedidoService.update(id, new PedidoUpdateRequest(1, 1, EstadoPagamento.QUITADO.getCod(),
+				Set.of(new ItemPedidoUpdateRequest(1, 2))));
+
+		List<OutboxEvento> eventos = awaitEvents(String.valueOf(id), 2);
+
+		assertEquals(List.of(OutboxService.PEDIDO_CRIADO, OutboxService.PAGAMENTO_ESTADO_ALTERADO),
+				eventos.stream().map(OutboxEvento::tipo).toList());
+		assertTrue(eventos.get(0).id() < eventos.get(1).id());
+		assertTrue(eventos.get(0).payload().contains("\"id\":" + id));
+		assertTrue(eventos.get(1).payload().contains("\"estado\":\"QUITADO\""));
+	}
+
+	/**
+	 * Executa o relay e coleta os eventos do agregado; o relay agendado pode
+	 * publicar parte deles antes.
+	 */
+	private List<OutboxEvento> awaitEvents(String agregadoId, int esperados) throws InterruptedException {
+		List<OutboxEvento> eventos = new ArrayList<>();
+		for (int tentativa = 0; tentativa < 50 && eventos.size() < esperados; tentativa++) {
+			outboxRelay.relay();
+			sink.drain().stream()
+					.filter(evento -> evento.agregadoId().equals(agregadoId))
+					.forEach(eventos::add);
+			if (eventos.size() < esperados) {
+				Thread.sleep(100);
+			}
+		}
+		return eventos;
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchItemResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchResponse;
+
+@SpringBootTest
+class PedidoBatchServiceTest {
+
+	@Autowired
+	private PedidoBatchService pedidoBatchService;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	private final List<Integer> criados = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		criados.forEach(pedidoService::delete);
+		criados.clear();
+	}
+
+	@Test
+	void insertAllShouldReportEachPedidoWithoutFailingTheBatch() {
+		List<PedidoInsertRequest> lote = List.of(
+				pedido(1, 1, Set.of(new ItemPedidoRequest(1, 1))),
+				pedido(999, 1, Set.of(new ItemPedidoRequest(1, 1))),
+				pedido(1, 2, Set.of(new ItemPedidoRequest(999, 1))),
+				pedido(1, 2, Set.of(new ItemPedidoRequest(2, 2), new ItemPedidoRequest(3, 1))));
+
+		PedidoBatchResponse response = pedidoBatchService.insertAll(lote);
+		response.resultados().stream()
+				.filter(PedidoBatchItemResponse::sucesso)
+				.forEach(resultado -> criados.add(resultado.pedidoId()));
+
+		assertEquals(4, response.total());
+		assertEquals(2, response.sucessos());
+		assertEquals(2, response.falhas());
+
+		List<PedidoBatchItemResponse> resultados = response.resultados();
+		assertTrue(resultados.get(0).sucesso());
+		assertFalse(resultados.get(1).sucesso());
+		assertFalse(resultados.get(2).sucesso());
+		assertTrue(resultados.get(3).sucesso());
+		assertEquals(3, resultados.get(3).indice());
+
+		assertEquals(2, pedidoService.findById(resultados.get(3).pedidoId()).itens().size());
+		assertNotNull(resultados.get(1).erro());
+	}
+
+	private static PedidoInsertRequest pedido(Integer clienteId, Integer enderecoId, Set<ItemPedidoRequest> itens) {
+		return new PedidoInsertRequest(clienteId, enderecoId, 2, null, itens);
+	}
+
+}
@@ -0,0 +1,196 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchItemResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+import com.albertsilva.cursomc.services.exceptions.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+class PedidoGroupCommitterTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(PedidoGroupCommitterTest.class);
+
+	@Autowired
+	private PedidoGroupCommitter pedidoGroupCommitter;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private PedidoBatchService pedidoBatchService;
+
+	private final List<Integer> criados = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		criados.forEach(pedidoService::delete);
+		criados.clear();
+	}
+
+	@Test
+	void submitShouldCommitConcurrentPedidosTogetherAndReportEachResult() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PedidoGroupCommitter committer = new PedidoGroupCommitter(pedidoBatchService, Duration.ofSeconds(30), 21, 100,
+				Duration.ofSeconds(30), registry);
+		try {
+			List<CompletableFuture<PedidoBatchItemResponse>> futuros = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				futuros.add(committer.submit(pedido(1 + i % 3)));
+			}
+			CompletableFuture<PedidoBatchItemResponse> invalido = committer.submit(pedido(999));
+
+			Set<Integer> ids = new HashSet<>();
+			for (CompletableFuture<PedidoBatchItemResponse> futuro : futuros) {
+				PedidoBatchItemResponse resultado = futuro.join();
+				assertTrue(resultado.sucesso());
+				assertEquals(resultado.pedidoId(), resultado.pedido().id());
+				ids.add(resultado.pedidoId());
+			}
+			criados.addAll(ids);
+
+			assertEquals(20, ids.size());
+			assertFalse(invalido.join().sucesso());
+			assertTrue(invalido.join().causa() instanceof ObjectNotFoundException);
+			assertEquals(1, pedidoService.findById(ids.iterator().next()).itens().size());
+
+			DistributionSummary grupos = registry.get("cursomc.pedido.group-commit.size").summary();
+			assertEquals(1, grupos.count());
+			assertEquals(21, grupos.max());
+		} finally {
+			committer.shutdown();
+		}
+	}
+
+	@Test
+	void insertShouldReturnResponseFromGroupTransaction() {
+		PedidoResponse response = pedidoGroupCommitter.insert(pedido(1));
+		criados.add(response.id());
+
+		assertNotNull(response.id());
+		assertEquals(1, response.itens().size());
+	}
+
+	@Test
+	void insertShouldRethrowFailureOfRejectedPedido() {
+		assertThrows(ObjectNotFoundException.class, () -> pedidoGroupCommitter.insert(pedido(999)));
+	}
+
+	@Test
+	void insertShouldFailWithServiceUnavailableWhenQueueStaysFull() throws Exception {
+		CountDownLatch gravando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		PedidoBatchService bloqueado = new PedidoBatchService(null, null, null, null, null, null, null, null, null,
+				100, 5000) {
+			@Override
+			public List<PedidoBatchItemResponse> insertChunked(List<PedidoInsertRequest> dtos) {
+				gravando.countDown();
+				try {
+					liberar.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				List<PedidoBatchItemResponse> resultados = new ArrayList<>();
+				for (int i = 0; i < dtos.size(); i++) {
+					resultados.add(PedidoBatchItemResponse.falha(i, new InvalidRequestException("Não gravado")));
+				}
+				return resultados;
+			}
+		};
+		PedidoGroupCommitter committer = new PedidoGroupCommitter(bloqueado, Duration.ZERO, 1, 1,
+				Duration.ofMillis(200), new SimpleMeterRegistry());
+		try {
+			committer.submit(pedido(1));
+			assertTrue(gravando.await(5, TimeUnit.SECONDS));
+			committer.submit(pedido(1));
+
+			ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+					() -> committer.insert(pedido(1)));
+			assertEquals(503, e.getStatus());
+			assertEquals(1, e.getRetryAfterSeconds());
+		} finally {
+			liberar.countDown();
+			committer.shutdown();
+		}
+	}
+
+	/**
+	 * Compara a vazão de criações simultâneas com um commit por pedido e
+	 * com group commit. Executar com {@code -Dbenchmark=true}; com o H2 em
+	 * memória não há sincronização de disco, e o ganho medido é apenas o
+	 * das transações economizadas.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkGroupCommitAgainstPerRequestCommits() throws Exception {
+		int threads = 32;
+		int porThread = 50;
+
+		double individual = measure(threads, porThread, dto -> pedidoService.insert(dto).id());
+		double agrupado = measure(threads, porThread, dto -> pedidoGroupCommitter.submit(dto).join().pedidoId());
+
+		logger.info("Commit por pedido: {} pedidos/s; group commit: {} pedidos/s", Math.round(individual),
+				Math.round(agrupado));
+	}
+
+	private double measure(int threads, int porThread, Function<PedidoInsertRequest, Integer> inserir)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long inicio = System.nanoTime();
+			List<Future<List<Integer>>> tarefas = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				tarefas.add(executor.submit(() -> {
+					List<Integer> ids = new ArrayList<>();
+					for (int i = 0; i < porThread; i++) {
+						ids.add(inserir.apply(pedido(1 + i % 3)));
+					}
+					return ids;
+				}));
+			}
+			for (Future<List<Integer>> tarefa : tarefas) {
+				criados.addAll(tarefa.get(2, TimeUnit.MINUTES));
+			}
+			return threads * porThread / ((System.nanoTime() - inicio) / 1e9);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static PedidoInsertRequest pedido(Integer produtoId) {
+		return new PedidoInsertRequest(1, 1, 2, null, Set.of(new ItemPedidoRequest(produtoId, 1)));
+	}
+
+}
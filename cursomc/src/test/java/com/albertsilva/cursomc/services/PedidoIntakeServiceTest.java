@@ -0,0 +1,128 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.albertsilva.cursomc.domain.enums.StatusIntake;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoBatchItemResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoIntakeResponse;
+import com.albertsilva.cursomc.services.exceptions.InvalidRequestException;
+
+@SpringBootTest
+class PedidoIntakeServiceTest {
+
+	@Autowired
+	private PedidoIntakeService pedidoIntakeService;
+
+	@Autowired
+	private PedidoIntakeWorker pedidoIntakeWorker;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private PedidoBatchService pedidoBatchService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> recebimentos = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		for (Long id : recebimentos) {
+			Integer pedidoId = pedidoIntakeService.findById(id).pedidoId();
+			if (pedidoId != null) {
+				pedidoService.delete(pedidoId);
+			}
+			jdbcTemplate.update("delete from pedido_intake where id = ?", id);
+		}
+		recebimentos.clear();
+	}
+
+	@Test
+	void workersShouldDrainQueueIntoPedidosReportingEachIntake() throws Exception {
+		Long valido = enqueue(new PedidoInsertRequest(1, 1, 2, null, Set.of(new ItemPedidoRequest(1, 2))));
+		Long produtoInexistente = enqueue(new PedidoInsertRequest(1, 1, 2, null, Set.of(new ItemPedidoRequest(999, 1))));
+
+		assertEquals("PENDENTE", pedidoIntakeService.findById(valido).status());
+
+		pedidoIntakeWorker.start();
+
+		PedidoIntakeResponse concluido = awaitProcessed(valido);
+		assertEquals("CONCLUIDO", concluido.status());
+		assertEquals(1, pedidoService.findById(concluido.pedidoId()).itens().size());
+
+		PedidoIntakeResponse falho = awaitProcessed(produtoInexistente);
+		assertEquals("FALHOU", falho.status());
+		assertNotNull(falho.erro());
+	}
+
+	@Test
+	void completeShouldRollBackPedidoOfIntakeAlreadyMarkedStale() {
+		PedidoInsertRequest dto = new PedidoInsertRequest(1, 1, 2, null, Set.of(new ItemPedidoRequest(1, 1)));
+		Timestamp reservadoEm = Timestamp.from(Instant.now().minusSeconds(60));
+		jdbcTemplate.update("insert into pedido_intake (status, payload, criado_em, atualizado_em) values (?, ?, ?, ?)",
+				StatusIntake.PROCESSANDO.getCod(), "{}", reservadoEm, reservadoEm);
+		Long id = jdbcTemplate.queryForObject("select max(id) from pedido_intake", Long.class);
+		recebimentos.add(id);
+		Integer pedidosAntes = jdbcTemplate.queryForObject("select count(*) from pedido", Integer.class);
+
+		pedidoIntakeService.failStale(Duration.ofSeconds(30));
+
+		List<PedidoIntakeService.Reserva> reservas = List.of(new PedidoIntakeService.Reserva(id, dto));
+		List<PedidoBatchItemResponse> resultados = pedidoBatchService.insertChunked(List.of(dto),
+				parcial -> pedidoIntakeService.complete(reservas, parcial));
+
+		assertFalse(resultados.get(0).sucesso());
+		assertEquals("Pedido não gravado: Recebimento de pedido " + id + " não está mais em processamento",
+				resultados.get(0).erro());
+		assertEquals(pedidosAntes, jdbcTemplate.queryForObject("select count(*) from pedido", Integer.class));
+		PedidoIntakeResponse falho = pedidoIntakeService.findById(id);
+		assertEquals("FALHOU", falho.status());
+		assertEquals(null, falho.pedidoId());
+	}
+
+	@Test
+	void enqueueShouldRejectIncompletePedidoUpFront() {
+		assertThrows(InvalidRequestException.class,
+				() -> pedidoIntakeService.enqueue(new PedidoInsertRequest(1, 1, 9, null, Set.of(new ItemPedidoRequest(1, 1)))));
+		assertThrows(InvalidRequestException.class,
+				() -> pedidoIntakeService.enqueue(new PedidoInsertRequest(1, 1, 2, null, Set.of())));
+	}
+
+	private Long enqueue(PedidoInsertRequest dto) {
+		Long id = pedidoIntakeService.enqueue(dto).id();
+		recebimentos.add(id);
+		return id;
+	}
+
+	private PedidoIntakeResponse awaitProcessed(Long id) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 10_000;
+		PedidoIntakeResponse response = pedidoIntakeService.findById(id);
+		while (("PENDENTE".equals(response.status()) || "PROCESSANDO".equals(response.status()))
+				&& System.currentTimeMillis() < limite) {
+			Thread.sleep(50);
+			response = pedidoIntakeService.findById(id);
+		}
+		return response;
+	}
+
+}
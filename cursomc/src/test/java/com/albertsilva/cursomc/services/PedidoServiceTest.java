@@ -0,0 +1,206 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.albertsilva.cursomc.domain.Pedido;
+import com.albertsilva.cursomc.domain.Produto;
+import com.albertsilva.cursomc.domain.enums.EstadoPagamento;
+import com.albertsilva.cursomc.dto.pagination.CursorPageResponse;
+import com.albertsilva.cursomc.dto.pedido.request.ItemPedidoRequest;
+import com.albertsilva.cursomc.dto.pedido.request.PedidoInsertRequest;
+import com.albertsilva.cursomc.dto.pedido.response.ItemPedidoResponse;
+import com.albertsilva.cursomc.dto.pedido.response.PedidoResponse;
+import com.albertsilva.cursomc.dto.pedido.update.ItemPedidoUpdateRequest;
+import com.albertsilva.cursomc.dto.pedido.update.PedidoUpdateRequest;
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class PedidoServiceTest {
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private OptimisticLockRetry optimisticLockRetry;
+
+	private final List<Integer> criados = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 4; i++) {
+			PedidoInsertRequest dto = new PedidoInsertRequest(1, 1, 2, null,
+					Set.of(new ItemPedidoRequest(1, 1), new ItemPedidoRequest(2, 2), new ItemPedidoRequest(3, 3)));
+			criados.add(pedidoService.insert(dto).id());
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		criados.forEach(pedidoService::delete);
+		criados.clear();
+	}
+
+	@Test
+	void findAllPagedShouldUseFixedNumberOfQueriesRegardlessOfPageSize() {
+		long consultasPaginaPequena = countStatements(PageRequest.of(0, 2, Sort.by("instante")));
+		long consultasPaginaGrande = countStatements(PageRequest.of(0, 5, Sort.by("instante")));
+
+		assertEquals(consultasPaginaPequena, consultasPaginaGrande);
+		assertEquals(3, consultasPaginaGrande);
+	}
+
+	@Test
+	void findByIdShouldBuildResponseWithoutLoadingEntities() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		PedidoResponse pedido = pedidoService.findById(criados.get(0));
+
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(3, pedido.itens().size());
+		assertEquals("PENDENTE", pedido.estadoPagamento());
+		assertEquals(pedido.itens().stream().mapToDouble(ItemPedidoResponse::subtotal).sum(), pedido.total(), 0.001);
+	}
+
+	@Test
+	void findAllByCursorShouldWalkAllPedidosInKeysetOrder() {
+		List<Integer> esperado = pedidoService.findAllPaged(PageRequest.of(0, 100, Sort.by("instante", "id")))
+				.map(PedidoResponse::id)
+				.getContent();
+
+		List<Integer> percorrido = new ArrayList<>();
+		String cursor = "";
+		do {
+			CursorPageResponse<PedidoResponse> page = pedidoService.findAllByCursor(cursor, 2);
+			page.content().forEach(pedido -> percorrido.add(pedido.id()));
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertEquals(esperado, percorrido);
+	}
+
+	@Test
+	void insertShouldResolveAllProdutosAtOnce() {
+		entityManagerFactory.getCache().evict(Produto.class);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		PedidoInsertRequest dto = new PedidoInsertRequest(1, 1, 2, null,
+				Set.of(new ItemPedidoRequest(1, 1), new ItemPedidoRequest(2, 1), new ItemPedidoRequest(3, 1)));
+		criados.add(pedidoService.insert(dto).id());
+
+		assertEquals(0, statistics.getEntityStatistics(Produto.class.getName()).getFetchCount());
+		assertEquals(3, statistics.getEntityStatistics(Produto.class.getName()).getLoadCount());
+
+		entityManagerFactory.getCache().evict(Produto.class);
+		statistics.clear();
+		new TransactionTemplate(transactionManager)
+				.executeWithoutResult(status -> assertEquals(3, pedidoService.searchProducts(List.of(1, 2, 3)).size()));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void insertShouldRejectUnknownProdutoBeforeAnyInsert() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		PedidoInsertRequest dto = new PedidoInsertRequest(1, 1, 2, null,
+				Set.of(new ItemPedidoRequest(1, 1), new ItemPedidoRequest(999, 1)));
+
+		assertThrows(ObjectNotFoundException.class, () -> pedidoService.insert(dto));
+		assertEquals(0, statistics.getEntityInsertCount());
+	}
+
+	@Test
+	void concurrentPagamentoChangeShouldBeDetectedInsteadOfLost() {
+		Integer id = criados.get(0);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class,
+				() -> transaction.executeWithoutResult(status -> cancelarAposAlteracaoConcorrente(id, true)));
+
+		assertEquals("QUITADO", pedidoService.findById(id).estadoPagamento());
+	}
+
+	@Test
+	void optimisticLockRetryShouldReapplyChangeOnFreshVersion() {
+		Integer id = criados.get(0);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		AtomicInteger tentativas = new AtomicInteger();
+
+		optimisticLockRetry.execute(() -> transaction.execute(
+				status -> cancelarAposAlteracaoConcorrente(id, tentativas.getAndIncrement() == 0)));
+
+		assertEquals(2, tentativas.get());
+		assertEquals("CANCELADO", pedidoService.findById(id).estadoPagamento());
+	}
+
+	/**
+	 * Lê o pedido na transação corrente, opcionalmente deixa outra transação
+	 * quitá-lo e então tenta cancelá-lo a partir da versão lida.
+	 */
+	private Pedido cancelarAposAlteracaoConcorrente(Integer id, boolean concorrente) {
+		Pedido pedido = entityManager.find(Pedido.class, id);
+		pedido.getPagamento().getEstado();
+
+		if (concorrente) {
+			PedidoUpdateRequest quitar = new PedidoUpdateRequest(1, 1, EstadoPagamento.QUITADO.getCod(),
+					Set.of(new ItemPedidoUpdateRequest(1, 1)));
+			CompletableFuture.runAsync(() -> pedidoService.update(id, quitar)).join();
+		}
+
+		pedido.getPagamento().setEstado(EstadoPagamento.CANCELADO);
+		return pedido;
+	}
+
+	private long countStatements(PageRequest pageable) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		Page<PedidoResponse> page = pedidoService.findAllPaged(pageable);
+
+		assertEquals(pageable.getPageSize(), page.getNumberOfElements());
+		page.forEach(pedido -> assertFalse(pedido.itens().isEmpty()));
+
+		return statistics.getPrepareStatementCount();
+	}
+
+}
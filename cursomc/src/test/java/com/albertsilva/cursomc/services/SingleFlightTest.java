@@ -0,0 +1,156 @@
+package com.albertsilva.cursomc.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.albertsilva.cursomc.services.exceptions.ObjectNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void loadShouldShareOneInFlightLoadAmongConcurrentCallers() throws Exception {
+		SingleFlight<Integer, String> singleFlight = new SingleFlight<>("teste", Duration.ZERO, registry);
+		AtomicInteger cargas = new AtomicInteger();
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<String>> respostas = new ArrayList<>();
+			respostas.add(executor.submit(() -> singleFlight.load(1, () -> {
+				cargas.incrementAndGet();
+				await(liberar);
+				return "pedido-1";
+			})));
+			while (cargas.get() == 0) {
+				Thread.onSpinWait();
+			}
+			for (int i = 1; i < threads; i++) {
+				respostas.add(executor.submit(() -> singleFlight.load(1, () -> {
+					cargas.incrementAndGet();
+					return "outra carga";
+				})));
+			}
+			while (count("shared") < threads - 1) {
+				Thread.onSpinWait();
+			}
+			liberar.countDown();
+
+			for (Future<String> resposta : respostas) {
+				assertEquals("pedido-1", resposta.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(1, cargas.get());
+		assertEquals(1, count("loaded"));
+		assertEquals(threads - 1, count("shared"));
+	}
+
+	@Test
+	void loadShouldReuseCompletedResultOnlyWithinStaleness() {
+		SingleFlight<Integer, String> semRetencao = new SingleFlight<>("zero", Duration.ZERO, registry);
+		AtomicInteger cargas = new AtomicInteger();
+
+		semRetencao.load(1, () -> "v" + cargas.incrementAndGet());
+		assertEquals("v2", semRetencao.load(1, () -> "v" + cargas.incrementAndGet()));
+
+		SingleFlight<Integer, String> comRetencao = new SingleFlight<>("retencao", Duration.ofMinutes(1), registry);
+		comRetencao.load(1, () -> "a");
+		assertEquals("a", comRetencao.load(1, () -> "b"));
+
+		comRetencao.forget(1);
+		assertEquals("c", comRetencao.load(1, () -> "c"));
+	}
+
+	@Test
+	void forgetShouldStopSharingAnInFlightLoad() throws Exception {
+		SingleFlight<Integer, String> singleFlight = new SingleFlight<>("emAndamento", Duration.ofMinutes(1), registry);
+		CountDownLatch iniciada = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> antiga = executor.submit(() -> singleFlight.load(1, () -> {
+				iniciada.countDown();
+				await(liberar);
+				return "antes";
+			}));
+			await(iniciada);
+
+			singleFlight.forget(1);
+			assertEquals("depois", singleFlight.load(1, () -> "depois"));
+
+			liberar.countDown();
+			assertEquals("antes", antiga.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals("depois", singleFlight.load(1, () -> "outra carga"));
+	}
+
+	@Test
+	void forgetAfterCommitShouldKeepResultUntilCommit() {
+		SingleFlight<Integer, String> singleFlight = new SingleFlight<>("commit", Duration.ofMinutes(1), registry);
+		singleFlight.load(1, () -> "antes");
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			singleFlight.forgetAfterCommit(1);
+			assertEquals("antes", singleFlight.load(1, () -> "durante"));
+
+			TransactionSynchronizationUtils.triggerAfterCommit();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals("depois", singleFlight.load(1, () -> "depois"));
+	}
+
+	@Test
+	void loadShouldPropagateFailureWithoutRetainingIt() {
+		SingleFlight<Integer, String> singleFlight = new SingleFlight<>("falha", Duration.ofMinutes(1), registry);
+
+		assertThrows(ObjectNotFoundException.class, () -> singleFlight.load(1, () -> {
+			throw new ObjectNotFoundException("Pedido não encontrado! Id: 1");
+		}));
+		assertEquals("ok", singleFlight.load(1, () -> "ok"));
+	}
+
+	private double count(String result) {
+		return registry.find("cursomc.singleflight.calls").tags("result", result).counters().stream()
+				.mapToDouble(counter -> counter.count())
+				.sum();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+}